@@ -6,11 +6,17 @@ import java.util.List;
  * These include sorting movies, searching for a specific movie, optimizing movie schedules,
  * and finding the minimum number of rooms required to show all movies.
  * 
+ * The files are never sorted in place. Every assignment works on a sorted view of its file from a shared Sorter,
+ * which caches the order of every file per comparator, so the order by start time is computed once per file and
+ * reused by the later assignments. Reusing a cached order still compares the file with a snapshot in O(n) time.
+ * The cache makes the Sorter, and therefore an Assignments object, stateful and not thread-safe.
+ * 
  * @author 611968bq - Berend Quist
  */
 public class Assignments {
     protected final StopWatch stopWatch = new StopWatch();
     protected final Utilities utilities = new Utilities(stopWatch);
+    protected final Sorter sorter = new Sorter();
 
     /**
      * Assignment 1a: Sorting movie data based on the start time.
@@ -21,13 +27,13 @@ public class Assignments {
         System.out.println("\n------------------------------------------------------------------------------------------------------");
         System.out.println("A1a: Sorting movie data based on start time");
 
-        Sorter sorter = new Sorter();
         Comparator<Movie> movieComparatorAscending = MovieComparators.byStartTime(true);
 
+        // The order is cached, so the assignments that follow can use it without sorting again
         if (measureTime) {
-            this.utilities.measureTime(data -> sorter.sortData(file, movieComparatorAscending, keyTitle), file, false, false);
+            this.utilities.measureTime(data -> this.sorter.getSortedView(file, movieComparatorAscending, keyTitle), file, false, false);
         } else {
-            sorter.sortData(file, movieComparatorAscending, keyTitle);
+            this.sorter.getSortedView(file, movieComparatorAscending, keyTitle);
         }
     }
 
@@ -44,14 +50,12 @@ public class Assignments {
         System.out.println("\n------------------------------------------------------------------------------------------------------");
         System.out.println("A1b: Searching for a movie based on title and rating");
 
-        Sorter sorter = new Sorter();
         Comparator<Movie> movieComparatorTitleRatingAscending = MovieComparators.byTitleThenRating(true);
-
-        sorter.sortData(file, movieComparatorTitleRatingAscending, keyTitle);
+        List<Movie> sortedFile = this.sorter.getSortedView(file, movieComparatorTitleRatingAscending, keyTitle);
 
         // Search for the movie
         Searcher searcher = new Searcher();
-        searcher.findMovie(file, false, false, searchTitle, searchRating, searchDuration, searchStartTime);
+        searcher.findMovie(sortedFile, false, false, searchTitle, searchRating, searchDuration, searchStartTime);
     }
 
     /**
@@ -64,17 +68,15 @@ public class Assignments {
         System.out.println("\n------------------------------------------------------------------------------------------------------");
         System.out.println("A1d: Optimising movie schedule based on the start time");
 
-        Sorter sorter = new Sorter();
-        Comparator<Movie> movieComparatorStartTimeAscending = MovieComparators.byStartTime(true);
-        sorter.sortData(file, movieComparatorStartTimeAscending, keyTitle);
+        List<Movie> sortedFile = this.sorter.getSortedView(file, MovieComparators.byStartTime(true), keyTitle);
 
-        Movie startingNode = file.get(startingNodeIndex);
+        Movie startingNode = sortedFile.get(startingNodeIndex);
 
-        DirectedGraphInitialiser graphInitialiser = new DirectedGraphInitialiser(file, startingNode, sorter);
+        DirectedGraphInitialiser graphInitialiser = new DirectedGraphInitialiser(sortedFile, startingNode, this.sorter, true);
 
         // Optimize the movie schedule
-        Optimiser optimiser = new Optimiser(file, graphInitialiser.getGraph(), graphInitialiser.getArcs(), startingNode);
-        this.utilities.measureTime(data -> optimiser.findPath(false, false), file, false, false);
+        Optimiser optimiser = new Optimiser(sortedFile, graphInitialiser.getCompressedGraph(), graphInitialiser.getArcs(), startingNode);
+        this.utilities.measureTime(data -> optimiser.findPath(false, false), sortedFile, false, false);
 
         optimiser.getOptimalMovieSequence();
     }
@@ -88,16 +90,41 @@ public class Assignments {
         System.out.println("\n------------------------------------------------------------------------------------------------------");
         System.out.println("A1e: Optimising movie schedule based on a time limit (6h)");
 
-        Sorter sorter = new Sorter();
-        Comparator<Movie> movieComparatorStartTimeAscending = MovieComparators.byStartTime(true);
-        sorter.sortData(file, movieComparatorStartTimeAscending, keyTitle);
+        List<Movie> sortedFile = this.sorter.getSortedView(file, MovieComparators.byStartTime(true), keyTitle);
 
-        Movie startingNode = file.get(0);
+        Movie startingNode = sortedFile.get(0);
 
-        DirectedGraphInitialiser graphInitialiser = new DirectedGraphInitialiser(file, file.get(1), sorter);
+        DirectedGraphInitialiser graphInitialiser = new DirectedGraphInitialiser(sortedFile, sortedFile.get(1), this.sorter, true);
+
+        Optimiser optimiser = new Optimiser(sortedFile, graphInitialiser.getCompressedGraph(), graphInitialiser.getArcs(), startingNode);
+        this.utilities.measureTime(data -> optimiser.findPathDisregardStartingIndex(false, true), sortedFile, false, false);
+    }
 
-        Optimiser optimiser = new Optimiser(file, graphInitialiser.getGraph(), graphInitialiser.getArcs(), startingNode);
-        this.utilities.measureTime(data -> optimiser.findPathDisregardStartingIndex(false, true), file, false, false);
+    /**
+     * Checks that the single backward pass over all starting points gives the same optimal sequence as testing every
+     * starting point separately, both without a time limit.
+     * 
+     * @param file The list of movies to process.
+     * @throws IllegalStateException if the two modes give different sequences.
+     */
+    public void checkAllStartingNodes(List<Movie> file, String keyTitle) {
+        System.out.println("\n------------------------------------------------------------------------------------------------------");
+        System.out.println("Check: Optimising in a single pass against testing all starting points");
+
+        List<Movie> sortedFile = this.sorter.getSortedView(file, MovieComparators.byStartTime(true), keyTitle);
+
+        Movie startingNode = sortedFile.get(0);
+
+        DirectedGraphInitialiser graphInitialiser = new DirectedGraphInitialiser(sortedFile, startingNode, this.sorter, true);
+
+        Optimiser optimiser = new Optimiser(sortedFile, graphInitialiser.getCompressedGraph(), graphInitialiser.getArcs(), startingNode);
+        List<Movie> testedSequence = optimiser.findPathDisregardStartingIndex(false, false);
+        List<Movie> singlePassSequence = optimiser.findPathAllStartingNodes(false);
+
+        if (!testedSequence.equals(singlePassSequence)) {
+            throw new IllegalStateException("The single pass gives " + singlePassSequence + ", but testing all starting points gives " + testedSequence + ".");
+        }
+        System.out.println("-> Both modes give the same optimal sequence.");
     }
 
     /**
@@ -109,12 +136,10 @@ public class Assignments {
         System.out.println("\n------------------------------------------------------------------------------------------------------");
         System.out.println("A1f: Finding the minimum number of rooms required to show all movies");
 
-        Sorter sorter = new Sorter();
-        Comparator<Movie> movieComparatorStartTimeAscending = MovieComparators.byStartTime(true);
-        sorter.sortData(file, movieComparatorStartTimeAscending, keyTitle);
+        List<Movie> sortedFile = this.sorter.getSortedView(file, MovieComparators.byStartTime(true), keyTitle);
 
         // Allocate rooms for the movies
-        CinemaScheduler cinemaRoomAllocator = new CinemaScheduler(file);
-        this.utilities.measureTime(data -> cinemaRoomAllocator.findMinimumRequiredRooms(), file, false, false);
+        CinemaScheduler cinemaRoomAllocator = new CinemaScheduler(sortedFile);
+        this.utilities.measureTime(data -> cinemaRoomAllocator.findMinimumRequiredRooms(), sortedFile, false, false);
     }
 }
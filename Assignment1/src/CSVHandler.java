@@ -1,8 +1,20 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A utility class for reading and printing data from CSV files.
@@ -10,11 +22,48 @@ import java.util.List;
  * The CSVHandler class reads CSV files where values are delimited by semicolons (;).
  * It provides methods to:
  * - Read CSV data from a file into a list of Movie objects.
+ * - Read CSV data from a memory-mapped file into a list of Movie objects, without creating a String per line.
+ * - Read CSV data from a memory-mapped file in parallel, parsing chunks of the file on multiple threads.
+ * - Stream the movies in a CSV file one at a time, without keeping the whole file in memory.
  * - Print the CSV data to the console (mainly for testing purposes).
  * 
+ * The titles of the movies that are read into a list are interned in the TitleDictionary of the handler, so movies
+ * with the same title share a single String and its comparison key.
+ * 
  * @author 611968bq
  */
 public class CSVHandler {
+    static final long MAX_MAPPING_SIZE = 1L << 30;  // Files are mapped in windows of at most 1 GB
+    private static final int MIN_CHUNK_SIZE = 1 << 16;  // Chunks of at most 64 KB are parsed by a single task
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    protected final TitleDictionary titleDictionary;
+
+    /**
+     * Constructs a handler with a new, empty title dictionary.
+     */
+    public CSVHandler() {
+        this(new TitleDictionary());
+    }
+
+    /**
+     * Constructs a handler that interns the titles in the given dictionary, for example to share the titles of
+     * several files.
+     *
+     * @param titleDictionary The title dictionary.
+     */
+    public CSVHandler(TitleDictionary titleDictionary) {
+        this.titleDictionary = titleDictionary;
+    }
+
+    /**
+     * Gives the dictionary in which the titles of the movies read by this handler are interned.
+     *
+     * @return The title dictionary.
+     */
+    public TitleDictionary getTitleDictionary() {
+        return this.titleDictionary;
+    }
 
     /**
      * Processes the CSV data from the specified file path and returns a list of Movie objects.
@@ -44,6 +93,146 @@ public class CSVHandler {
         return movies;
     }
 
+    /**
+     * Processes the CSV data from the specified file path in the same way as processData, but reads the file through
+     * a memory mapping and parses the rows directly from the mapped bytes. The file is mapped in windows of at most
+     * MAX_MAPPING_SIZE bytes, so files larger than 2 GB can be read as well; a window always starts at the start of a line.
+     *
+     * @param filePath The path to the CSV file.
+     * @return A list of Movie objects created from the CSV data.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public List<Movie> processDataMapped(String filePath) throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        try (CSVMovieIterator iterator = new CSVMovieIterator(filePath, this.titleDictionary)) {
+            while (iterator.hasNext()) {
+                movies.add(iterator.next());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error while reading file: " + filePath);
+            IOException cause = e instanceof UncheckedIOException ? ((UncheckedIOException) e).getCause() : (IOException) e;
+            throw new IOException("Error reading the CSV file: " + cause.getMessage(), cause);
+        }
+        return movies;
+    }
+
+    /**
+     * Streams the movies in the CSV file at the specified file path, reading and parsing one row at a time from a
+     * memory-mapped file. Only the movies that are still referenced downstream are kept in memory, so files larger
+     * than the heap can be processed. The titles are not interned in the title dictionary, since the dictionary would
+     * keep every distinct title in memory. The stream holds the file open, so it should be closed after use, for example
+     * with a try-with-resources statement. I/O errors while reading are thrown as an UncheckedIOException.
+     *
+     * @param filePath The path to the CSV file.
+     * @return A sequential, ordered stream of the movies in the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<Movie> streamData(String filePath) throws IOException {
+        CSVMovieIterator iterator = new CSVMovieIterator(filePath);
+        Spliterator<Movie> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                iterator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Processes the CSV data from the specified file path in the same way as processDataMapped, but parses the file on
+     * multiple threads. Every mapped window is split into chunks that start at the start of a line, and the chunks are
+     * parsed concurrently on a ForkJoinPool, every task with its own parser. The movies of the chunks are concatenated
+     * in file order, and the invalid rows are reported in file order with their row number in the whole file. All tasks
+     * intern the titles in the same dictionary, which is safe to use from multiple threads.
+     *
+     * @param filePath The path to the CSV file.
+     * @param parallelism The number of worker threads to use.
+     * @return A list of Movie objects created from the CSV data.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public List<Movie> processDataParallel(String filePath, int parallelism) throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long windowStart = 0;
+            int row = 0;
+
+            while (windowStart < fileSize) {
+                int windowSize = (int) Math.min(MAX_MAPPING_SIZE, fileSize - windowStart);
+                boolean lastWindow = windowStart + windowSize == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+                int windowEnd = findWindowEnd(buffer, windowSize, lastWindow);
+                if (windowEnd == 0) {
+                    throw new IOException("Line " + row + " is longer than " + MAX_MAPPING_SIZE + " bytes");
+                }
+
+                // The first line of the file is the header
+                int position = 0;
+                if (row == 0) {
+                    position = CSVRowParser.skipLineTerminator(buffer, CSVRowParser.findLineEnd(buffer, 0, windowEnd), windowEnd);
+                    row++;
+                }
+
+                int chunkSize = Math.max(MIN_CHUNK_SIZE, (windowEnd - position) / (CHUNKS_PER_THREAD * parallelism));
+                ChunkResult result = pool.invoke(new ChunkTask(buffer, position, windowEnd, chunkSize, this.titleDictionary));
+                for (int i = 0; i < result.invalidRows.size(); i++) {
+                    System.err.println("Skipping invalid row " + (row + result.invalidRows.get(i)) + ": " + result.messages.get(i));
+                }
+                for (List<Movie> part : result.parts) {
+                    movies.addAll(part);
+                }
+
+                row += result.numberOfRows;
+                windowStart += windowEnd;
+            }
+        } catch (IOException e) {
+            System.err.println("Error while reading file: " + filePath);
+            throw new IOException("Error reading the CSV file: " + e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+        }
+        return movies;
+    }
+
+    /**
+     * Finds the end of the last complete line in a mapped window. In the last window of the file, every line is complete.
+     *
+     * @param buffer The mapped window.
+     * @param windowSize The size of the window.
+     * @param lastWindow Whether the window ends at the end of the file.
+     * @return The position after the line terminator of the last complete line, or 0 if the window has no complete line.
+     */
+    private static int findWindowEnd(MappedByteBuffer buffer, int windowSize, boolean lastWindow) {
+        if (lastWindow) {
+            return windowSize;
+        }
+        // A terminator in the last byte may be the '\r' of a "\r\n" that continues in the next window
+        for (int position = windowSize - 2; position >= 0; position--) {
+            byte value = buffer.get(position);
+            if (value == '\n' || value == '\r') {
+                return CSVRowParser.skipLineTerminator(buffer, position, windowSize);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gives the start of the first line that starts at or after the given position.
+     *
+     * @param buffer The buffer.
+     * @param position The position, which must be larger than 0.
+     * @param limit The position up to which the buffer is scanned.
+     * @return The start of the line, or the limit if no line starts before it.
+     */
+    private static int alignToLineStart(ByteBuffer buffer, int position, int limit) {
+        int lineEnd = CSVRowParser.findLineEnd(buffer, position - 1, limit);
+        return CSVRowParser.skipLineTerminator(buffer, lineEnd, limit);
+    }
+
     /**
      * Reads a CSV file from the specified file path.
      * Assumes values in the CSV file are delimited by semicolons (;).
@@ -82,11 +271,10 @@ public class CSVHandler {
             throw new IllegalArgumentException("Invalid row length: " + row.length);
         }
         try {
-            String title = row[0];
             Double rating = Double.parseDouble(row[1]);
             int duration = Integer.parseInt(row[2]);
             int startTime = Integer.parseInt(row[3]);
-            return new Movie(title, rating, duration, startTime);
+            return new Movie(this.titleDictionary.intern(row[0]), rating, duration, startTime);
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Error parsing movie data: " + String.join(", ", row), e);
         }
@@ -103,4 +291,89 @@ public class CSVHandler {
             System.out.println(movie);
         }
     }
+
+    /**
+     * The movies and invalid rows of a range of lines, parsed by a ChunkTask. The row numbers of the invalid rows are
+     * relative to the first line of the range.
+     */
+    private static class ChunkResult {
+        private final List<List<Movie>> parts = new ArrayList<>();
+        private final List<Integer> invalidRows = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private int numberOfRows = 0;
+
+        /**
+         * Appends the result of the range that directly follows this range, shifting its row numbers.
+         */
+        private ChunkResult append(ChunkResult next) {
+            this.parts.addAll(next.parts);
+            for (int i = 0; i < next.invalidRows.size(); i++) {
+                this.invalidRows.add(this.numberOfRows + next.invalidRows.get(i));
+                this.messages.add(next.messages.get(i));
+            }
+            this.numberOfRows += next.numberOfRows;
+            return this;
+        }
+    }
+
+    /**
+     * Parses a range of lines, splitting the range in halves at the start of a line until it is small enough
+     * to be parsed with a single parser.
+     */
+    private static class ChunkTask extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final TitleDictionary titleDictionary;
+
+        private ChunkTask(ByteBuffer buffer, int from, int to, int chunkSize, TitleDictionary titleDictionary) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.titleDictionary = titleDictionary;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            int mid = this.to - this.from <= this.chunkSize ? this.to : alignToLineStart(this.buffer, this.from + (this.to - this.from) / 2, this.to);
+            if (mid == this.to) {
+                return parseChunk();
+            }
+
+            ChunkTask left = new ChunkTask(this.buffer, this.from, mid, this.chunkSize, this.titleDictionary);
+            ChunkTask right = new ChunkTask(this.buffer, mid, this.to, this.chunkSize, this.titleDictionary);
+            left.fork();
+            ChunkResult rightResult = right.compute();
+            return left.join().append(rightResult);
+        }
+
+        /**
+         * Parses every line of the range.
+         */
+        private ChunkResult parseChunk() {
+            CSVRowParser parser = new CSVRowParser(this.titleDictionary);
+            ChunkResult result = new ChunkResult();
+            List<Movie> movies = new ArrayList<>();
+
+            int position = this.from;
+            while (position < this.to) {
+                int lineEnd = CSVRowParser.findLineEnd(this.buffer, position, this.to);
+                try {
+                    movies.add(parser.parseMovie(this.buffer, position, lineEnd));
+                } catch (IllegalArgumentException e) {
+                    result.invalidRows.add(result.numberOfRows);
+                    result.messages.add(e.getMessage());
+                }
+                result.numberOfRows++;
+                position = CSVRowParser.skipLineTerminator(this.buffer, lineEnd, this.to);
+            }
+
+            result.parts.add(movies);
+            return result;
+        }
+    }
 }
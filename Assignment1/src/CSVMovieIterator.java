@@ -0,0 +1,166 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The CSVMovieIterator class reads the movies of a semicolon-delimited CSV file one at a time. The file is mapped
+ * in windows of at most CSVHandler.MAX_MAPPING_SIZE bytes, and every row is parsed from the mapped bytes when the
+ * next movie is requested, so the memory used does not depend on the size of the file. The first line of the file is the header,
+ * and invalid rows are skipped with the same message as in CSVHandler.processData.
+ *
+ * The iterator holds the file open until it is closed. I/O errors while reading are thrown as an UncheckedIOException.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class CSVMovieIterator implements Iterator<Movie>, Closeable {
+    private final FileChannel channel;
+    private final long fileSize;
+    private final CSVRowParser parser;
+
+    private MappedByteBuffer buffer;
+    private long windowStart = 0;
+    private int windowSize = 0;
+    private boolean lastWindow = false;
+    private int position = 0;  // The start of the next line in the current window
+    private int row = 0;  // The row number of the next line, where row 0 is the header
+
+    private Movie nextMovie;
+
+    /**
+     * Constructs an iterator over the movies in the CSV file at the specified file path.
+     *
+     * @param filePath The path to the CSV file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public CSVMovieIterator(String filePath) throws IOException {
+        this(filePath, null);
+    }
+
+    /**
+     * Constructs an iterator over the movies in the CSV file at the specified file path that interns the titles in
+     * the given dictionary.
+     *
+     * @param filePath The path to the CSV file.
+     * @param titleDictionary The title dictionary, or null to not intern the titles.
+     * @throws IOException If the file cannot be opened.
+     */
+    public CSVMovieIterator(String filePath, TitleDictionary titleDictionary) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        this.fileSize = this.channel.size();
+        this.parser = new CSVRowParser(titleDictionary);
+    }
+
+    /**
+     * Checks whether the file has another valid row, parsing rows until one is found.
+     *
+     * @return True if there is another movie, false otherwise.
+     * @throws UncheckedIOException If an I/O error occurs while reading the file.
+     */
+    @Override
+    public boolean hasNext() {
+        if (this.nextMovie == null) {
+            this.nextMovie = readNextMovie();
+        }
+        return this.nextMovie != null;
+    }
+
+    /**
+     * Gives the next movie of the file.
+     *
+     * @return The next movie.
+     * @throws NoSuchElementException if there are no more movies.
+     * @throws UncheckedIOException If an I/O error occurs while reading the file.
+     */
+    @Override
+    public Movie next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more movies in the file.");
+        }
+        Movie movie = this.nextMovie;
+        this.nextMovie = null;
+        return movie;
+    }
+
+    /**
+     * Gives the row number of the next line to be read, where row 0 is the header.
+     *
+     * @return The number of lines read so far.
+     */
+    public int getRow() {
+        return this.row;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If an I/O error occurs while closing the file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.buffer = null;
+        this.channel.close();
+    }
+
+    /**
+     * Parses lines until a valid row is found, mapping the next window of the file when the current window has no
+     * complete line left.
+     *
+     * @return The movie of the next valid row, or null if the end of the file is reached.
+     */
+    private Movie readNextMovie() {
+        while (true) {
+            if (this.position >= this.windowSize || this.buffer == null) {
+                if (this.windowStart + this.position >= this.fileSize) {
+                    return null;
+                }
+                mapNextWindow();
+            }
+
+            int lineEnd = CSVRowParser.findLineEnd(this.buffer, this.position, this.windowSize);
+            // A line is only complete if its terminator (including the '\n' of "\r\n") lies within the window
+            if (!this.lastWindow && lineEnd >= this.windowSize - 1) {
+                if (this.position == 0) {
+                    throw new UncheckedIOException(new IOException("Line " + this.row + " is longer than " + CSVHandler.MAX_MAPPING_SIZE + " bytes"));
+                }
+                mapNextWindow();
+                continue;
+            }
+
+            int lineStart = this.position;
+            int lineRow = this.row++;
+            this.position = CSVRowParser.skipLineTerminator(this.buffer, lineEnd, this.windowSize);
+            if (lineRow == 0) {
+                continue;  // Skip the header
+            }
+
+            try {
+                return this.parser.parseMovie(this.buffer, lineStart, lineEnd);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Skipping invalid row " + lineRow + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Maps the window of the file that starts at the current position.
+     *
+     * @throws UncheckedIOException If the window cannot be mapped.
+     */
+    private void mapNextWindow() {
+        this.windowStart += this.position;
+        this.windowSize = (int) Math.min(CSVHandler.MAX_MAPPING_SIZE, this.fileSize - this.windowStart);
+        this.lastWindow = this.windowStart + this.windowSize == this.fileSize;
+        this.position = 0;
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowStart, this.windowSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
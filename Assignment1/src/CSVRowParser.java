@@ -0,0 +1,285 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CSVRowParser class parses rows of a semicolon-delimited CSV file directly from a byte buffer, such as a
+ * memory-mapped file. It scans the bytes for the delimiters and parses the numbers from the bytes, so no String is
+ * created for a row apart from the title of the movie.
+ *
+ * The rows are parsed in the same way as CSVHandler.processData parses the lines of a file: fields are split on
+ * semicolons (trailing empty fields are dropped, like String.split does), and numbers that are not plain decimals
+ * are handed to Double.parseDouble and Integer.parseInt, so the same rows are accepted or rejected with the same
+ * messages. The file must use a character encoding in which semicolons and line terminators are single ASCII bytes,
+ * such as UTF-8 or ISO-8859-1.
+ *
+ * If the parser is given a TitleDictionary, the titles are interned in it, so movies with the same title share a
+ * single String. A parser reuses its internal arrays between rows, so it is not thread-safe, but several parsers can
+ * share the same dictionary.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class CSVRowParser {
+    private static final byte DELIMITER = ';';
+    private static final int NUMBER_OF_FIELDS = 4;
+    private static final int MAX_EXACT_DIGITS = 15;  // Every integer with at most 15 digits is exact as a double
+    private static final int MAX_INT_DIGITS = 9;  // Every integer with at most 9 digits fits in an int
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final Charset charset;
+    private final TitleDictionary titleDictionary;
+    private final int[] fieldStarts = new int[NUMBER_OF_FIELDS];
+    private final int[] fieldEnds = new int[NUMBER_OF_FIELDS];
+    private byte[] titleBuffer = new byte[64];
+
+    /**
+     * Constructs a parser that decodes the titles with the default character set, like FileReader does, and does not
+     * intern them.
+     */
+    public CSVRowParser() {
+        this(Charset.defaultCharset(), null);
+    }
+
+    /**
+     * Constructs a parser that decodes the titles with the default character set and interns them in the given
+     * dictionary.
+     *
+     * @param titleDictionary The title dictionary, or null to not intern the titles.
+     */
+    public CSVRowParser(TitleDictionary titleDictionary) {
+        this(Charset.defaultCharset(), titleDictionary);
+    }
+
+    /**
+     * Constructs a parser that decodes the titles with the given character set and interns them in the given dictionary.
+     *
+     * @param charset The character set of the file.
+     * @param titleDictionary The title dictionary, or null to not intern the titles.
+     */
+    public CSVRowParser(Charset charset, TitleDictionary titleDictionary) {
+        this.charset = charset;
+        this.titleDictionary = titleDictionary;
+    }
+
+    /**
+     * Finds the end of the line that starts at the given position: the position of its line terminator
+     * ('\n', '\r' or "\r\n"), or the limit if the line has no terminator before the limit.
+     *
+     * @param buffer The buffer.
+     * @param position The position of the start of the line.
+     * @param limit The position up to which the buffer is scanned.
+     * @return The position of the first line terminator, or the limit.
+     */
+    public static int findLineEnd(ByteBuffer buffer, int position, int limit) {
+        while (position < limit) {
+            byte value = buffer.get(position);
+            if (value == '\n' || value == '\r') {
+                return position;
+            }
+            position++;
+        }
+        return limit;
+    }
+
+    /**
+     * Gives the position of the next line, after the line terminator at the given position.
+     *
+     * @param buffer The buffer.
+     * @param lineEnd The position of the line terminator, as found by findLineEnd.
+     * @param limit The position up to which the buffer is scanned.
+     * @return The position of the start of the next line.
+     */
+    public static int skipLineTerminator(ByteBuffer buffer, int lineEnd, int limit) {
+        if (lineEnd < limit && buffer.get(lineEnd) == '\r' && lineEnd + 1 < limit && buffer.get(lineEnd + 1) == '\n') {
+            return lineEnd + 2;
+        }
+        return Math.min(lineEnd + 1, limit);
+    }
+
+    /**
+     * Parses the line [from, to) of the buffer into a Movie object.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the start of the line.
+     * @param to The position of the end of the line, excluding the line terminator.
+     * @return A Movie object parsed from the line.
+     * @throws IllegalArgumentException if the row format is invalid.
+     */
+    public Movie parseMovie(ByteBuffer buffer, int from, int to) {
+        int rowLength = splitFields(buffer, from, to);
+        if (rowLength < NUMBER_OF_FIELDS) {
+            throw new IllegalArgumentException("Invalid row length: " + rowLength);
+        }
+
+        try {
+            Double rating = parseDouble(buffer, this.fieldStarts[1], this.fieldEnds[1]);
+            int duration = parseInt(buffer, this.fieldStarts[2], this.fieldEnds[2]);
+            int startTime = parseInt(buffer, this.fieldStarts[3], this.fieldEnds[3]);
+            String title = decode(buffer, this.fieldStarts[0], this.fieldEnds[0]);
+            if (this.titleDictionary != null) {
+                return new Movie(this.titleDictionary.intern(title), rating, duration, startTime);
+            }
+            return new Movie(title, rating, duration, startTime);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Error parsing movie data: " + String.join(", ", getFields(buffer, from, to)), e);
+        }
+    }
+
+    /**
+     * Stores the positions of the first fields of the line [from, to) and counts the fields in the same way as
+     * String.split, which drops trailing empty fields.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the start of the line.
+     * @param to The position of the end of the line.
+     * @return The number of fields.
+     */
+    private int splitFields(ByteBuffer buffer, int from, int to) {
+        if (from == to) {
+            return 1;  // An empty line is a single empty field
+        }
+
+        int numberOfFields = 0;
+        int nonEmptyFields = 0;
+        int fieldStart = from;
+        for (int position = from; position <= to; position++) {
+            if (position < to && buffer.get(position) != DELIMITER) {
+                continue;
+            }
+
+            if (numberOfFields < NUMBER_OF_FIELDS) {
+                this.fieldStarts[numberOfFields] = fieldStart;
+                this.fieldEnds[numberOfFields] = position;
+            }
+            numberOfFields++;
+            if (position > fieldStart) {
+                nonEmptyFields = numberOfFields;
+            }
+            fieldStart = position + 1;
+        }
+        return nonEmptyFields;
+    }
+
+    /**
+     * Gives the fields of the line [from, to) as strings, in the same way as String.split. This is only used to
+     * report invalid rows.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the start of the line.
+     * @param to The position of the end of the line.
+     * @return The fields of the line.
+     */
+    private List<String> getFields(ByteBuffer buffer, int from, int to) {
+        List<String> fields = new ArrayList<>();
+        int fieldStart = from;
+        for (int position = from; position <= to; position++) {
+            if (position == to || buffer.get(position) == DELIMITER) {
+                fields.add(decode(buffer, fieldStart, position));
+                fieldStart = position + 1;
+            }
+        }
+        while (!fields.isEmpty() && fields.get(fields.size() - 1).isEmpty()) {
+            fields.remove(fields.size() - 1);
+        }
+        return fields;
+    }
+
+    /**
+     * Decodes the bytes [from, to) of the buffer into a string.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the first byte.
+     * @param to The position after the last byte.
+     * @return The decoded string.
+     */
+    private String decode(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length > this.titleBuffer.length) {
+            this.titleBuffer = new byte[Math.max(length, 2 * this.titleBuffer.length)];
+        }
+        buffer.get(from, this.titleBuffer, 0, length);
+        return new String(this.titleBuffer, 0, length, this.charset);
+    }
+
+    /**
+     * Parses the bytes [from, to) of the buffer into a double. A plain decimal with at most 15 digits is parsed
+     * directly: the digits form an integer that is exact as a double, and dividing it by an exact power of ten
+     * rounds correctly, so the result is equal to that of Double.parseDouble. Anything else is handed to
+     * Double.parseDouble.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the first byte.
+     * @param to The position after the last byte.
+     * @return The parsed double.
+     * @throws NumberFormatException if the bytes do not contain a parsable double.
+     */
+    private double parseDouble(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        boolean negative = false;
+        if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;  // -1 until the decimal point is found
+        for (; position < to; position++) {
+            byte value = buffer.get(position);
+            if (value >= '0' && value <= '9') {
+                mantissa = 10 * mantissa + (value - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (value == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+
+        if (position < to || digits == 0 || digits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(decode(buffer, from, to));
+        }
+        double result = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses the bytes [from, to) of the buffer into an int. A plain integer with at most 9 digits is parsed
+     * directly; anything else is handed to Integer.parseInt.
+     *
+     * @param buffer The buffer.
+     * @param from The position of the first byte.
+     * @param to The position after the last byte.
+     * @return The parsed int.
+     * @throws NumberFormatException if the bytes do not contain a parsable int.
+     */
+    private int parseInt(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        boolean negative = false;
+        if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+
+        int digits = to - position;
+        if (digits == 0 || digits > MAX_INT_DIGITS) {
+            return Integer.parseInt(decode(buffer, from, to));
+        }
+
+        int result = 0;
+        for (; position < to; position++) {
+            byte value = buffer.get(position);
+            if (value < '0' || value > '9') {
+                return Integer.parseInt(decode(buffer, from, to));
+            }
+            result = 10 * result + (value - '0');
+        }
+        return negative ? -result : result;
+    }
+}
@@ -1,113 +1,257 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.HashMap;
 
 /**
  * The CinemaScheduler class is responsible for managing and allocating cinema rooms
- * based on the schedule of movies. It tracks the time slots occupied by movies
- * and calculates the minimum number of rooms required to avoid scheduling conflicts.
- * 
- * @author 611968bq - Berend Quist 
+ * based on the schedule of movies. It sweeps over the start and end times of the movies
+ * and calculates the minimum number of rooms required to avoid scheduling conflicts,
+ * and it can assign every movie to a concrete room. The movies are either a list of movies
+ * or the rows of a MovieTable, whose columns are read directly.
+ *
+ * @author 611968bq - Berend Quist
  */
 public class CinemaScheduler {
 
     private static final int MIN_TIME = 0;
-    private static final int MAX_TIME = 1440; // Time in minutes (from 00:00 to 24:00)
+    private static final int ROOM_BITS = 31;
+    private static final long ROOM_MASK = (1L << ROOM_BITS) - 1;
 
     private List<Movie> movies;  // List of movies to be scheduled
-    private HashMap<Integer, Integer> timeSlotTracker;  // Tracks movie count per minute
+    private MovieTable table;  // Table of movies to be scheduled, used instead of the list if it is not null
 
     /**
      * Constructs a CinemaScheduler with a list of movies.
-     * Initializes the time slot tracker to count the number of movies scheduled at each minute.
      *
      * @param movies List of movies to be scheduled.
      */
     public CinemaScheduler(List<Movie> movies) {
         this.movies = movies;
-        this.timeSlotTracker = new HashMap<>();
-        initializeTimeSlotTracker();
     }
 
     /**
-     * Initializes the time slot tracker by setting each time slot from MIN_TIME to MAX_TIME to 0.
-     * This prepares the tracker for counting the number of movies in each time slot.
+     * Constructs a CinemaScheduler with a table of movies.
+     *
+     * @param table Table of movies to be scheduled.
      */
-    private void initializeTimeSlotTracker() {
-        for (int time = MIN_TIME; time <= MAX_TIME; time++) {
-            timeSlotTracker.put(time, 0);
-        }
+    public CinemaScheduler(MovieTable table) {
+        this.table = table;
     }
 
     /**
-     * Updates the time slot tracker for all movies by incrementing the count of movies
-     * for every minute each movie occupies.
+     * Calculates the minimum number of rooms required by finding the moment
+     * with the maximum number of overlapping movies. This determines the room capacity
+     * needed to handle the busiest time slots.
+     *
+     * @return The minimum number of rooms required to prevent scheduling conflicts.
      */
-    private void updateTimeSlotTracker() {
-        for (Movie movie : movies) {
-            allocateMovieTimeSlots(movie);
+    public int findMinimumRequiredRooms() {
+        System.out.println("-----------------");
+        System.out.println("Calculating minimum number of rooms required...");
+
+        return getMaxOccurringMoviesInTimeSlot();
+    }
+
+    /**
+     * Finds the maximum number of movies occurring at the same time with a sweep over the sorted start and end times.
+     * A movie occupies the minutes from its start time up to (but excluding) its end time, so at equal times an end
+     * is processed before a start. This takes O(n log n) time for any time horizon.
+     *
+     * @return The maximum number of overlapping movies, which equals the number of rooms required.
+     */
+    private int getMaxOccurringMoviesInTimeSlot() {
+        int numberOfMovies = getNumberOfMovies();
+        int[] startTimes = new int[numberOfMovies];
+        long[] endTimes = new long[numberOfMovies];
+
+        for (int i = 0; i < numberOfMovies; i++) {
+            validateTimeSlot(i);
+            startTimes[i] = getStartTime(i);
+            endTimes[i] = getEndTime(i);
         }
+        Arrays.sort(startTimes);
+        Arrays.sort(endTimes);
+
+        int occurrences = 0;
+        int maxOccurrences = 0;
+        int end = 0;
+        for (int start = 0; start < numberOfMovies; start++) {
+            // Movies that end at or before this start time no longer occupy a room
+            while (end < numberOfMovies && endTimes[end] <= startTimes[start]) {
+                occurrences--;
+                end++;
+            }
+            occurrences++;
+            maxOccurrences = Math.max(maxOccurrences, occurrences);
+        }
+
+        System.out.println("Minimum number of rooms found. \n -> Minimum number of rooms required: " + maxOccurrences);
+        return maxOccurrences;
     }
 
     /**
-     * Allocates time slots for a single movie by incrementing the count for each time slot
-     * the movie occupies, based on its start time and duration.
+     * Assigns every movie to a room, using the minimum number of rooms. The movies are processed in order of start time,
+     * and a min-heap holds the time at which every room becomes free. A movie is shown in the room that becomes free
+     * first if that room is free at its start time; otherwise a new room is opened. This takes O(n log n + n log r)
+     * time, where r is the number of rooms. For a table, the timelines hold row views of the movies.
      *
-     * @param movie The movie to allocate in the time slot tracker.
+     * @return The room of every movie and the movies shown in every room.
      */
-    private void allocateMovieTimeSlots(Movie movie) {
-        int movieStartTime = movie.getStartTime();
-        int movieEndTime = movieStartTime + movie.getDuration();
+    public RoomAssignment assignRooms() {
+        System.out.println("-----------------");
+        System.out.println("Assigning movies to rooms...");
+
+        int numberOfMovies = getNumberOfMovies();
+        int[] order = sortByStartTime();
+        int[] rooms = new int[numberOfMovies];
+
+        // Every heap entry packs the time a room becomes free (at most 32 bits) and the index of the room (31 bits)
+        long[] heap = new long[numberOfMovies];
+        int heapSize = 0;
+        int numberOfRooms = 0;
 
-        for (int time = movieStartTime; time < movieEndTime; time++) {
-            if (isValidTimeSlot(time)) {
-                timeSlotTracker.put(time, timeSlotTracker.get(time) + 1);
+        for (int index : order) {
+            int room;
+            if (heapSize > 0 && (heap[0] >>> ROOM_BITS) <= getStartTime(index)) {
+                room = (int) (heap[0] & ROOM_MASK);
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, 0);
             } else {
-                throw new IllegalArgumentException("Invalid time slot: " + time);
+                room = numberOfRooms++;
             }
+
+            rooms[index] = room;
+            heap[heapSize] = (getEndTime(index) << ROOM_BITS) | room;
+            siftUp(heap, heapSize++);
+        }
+
+        List<List<Movie>> timelines = new ArrayList<>();
+        for (int room = 0; room < numberOfRooms; room++) {
+            timelines.add(new ArrayList<>());
+        }
+        for (int index : order) {
+            timelines.get(rooms[index]).add(getMovie(index));
         }
+
+        System.out.println("Movies assigned. \n -> Number of rooms used: " + numberOfRooms);
+        return new RoomAssignment(rooms, timelines);
     }
 
     /**
-     * Checks whether a given time slot is valid (between MIN_TIME and MAX_TIME).
+     * Gives the indices of the movies in order of start time, validating the time slot of every movie.
      *
-     * @param time The time slot to be validated.
-     * @return True if the time slot is valid, false otherwise.
+     * @return The indices of the movies, sorted by start time.
      */
-    private boolean isValidTimeSlot(int time) {
-        return time >= MIN_TIME && time <= MAX_TIME;
+    private int[] sortByStartTime() {
+        int numberOfMovies = getNumberOfMovies();
+        int[] startTimes = new int[numberOfMovies];
+        for (int i = 0; i < numberOfMovies; i++) {
+            validateTimeSlot(i);
+            startTimes[i] = getStartTime(i);
+        }
+        return Sorter.sortIndicesByIntKey(startTimes);
     }
 
     /**
-     * Calculates the minimum number of rooms required by finding the time slot
-     * with the maximum number of overlapping movies. This determines the room capacity
-     * needed to handle the busiest time slots.
+     * Moves the entry at the given position of the min-heap up until its parent is smaller.
      *
-     * @return The minimum number of rooms required to prevent scheduling conflicts.
+     * @param heap The heap.
+     * @param position The position of the entry.
      */
-    public int findMinimumRequiredRooms() {
-        System.out.println("-----------------");
-        System.out.println("Calculating minimum number of rooms required...");
-        
-        updateTimeSlotTracker();  // Updates time slot tracker based on movie times
-
-        return getMaxOccurringMoviesInTimeSlot();
+    private static void siftUp(long[] heap, int position) {
+        long entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = entry;
     }
 
     /**
-     * Finds the maximum number of movies occurring in any given time slot.
-     * This determines the maximum overlap and represents the minimum number of rooms required.
+     * Moves the entry at the given position of the min-heap down until its children are larger.
      *
-     * @return The maximum number of overlapping movies, which equals the number of rooms required.
+     * @param heap The heap.
+     * @param size The number of entries in the heap.
+     * @param position The position of the entry.
      */
-    private int getMaxOccurringMoviesInTimeSlot() {
-        int maxOccurrences = 0;
-        for (int occurrences : timeSlotTracker.values()) {
-            if (occurrences > maxOccurrences) {
-                maxOccurrences = occurrences;
+    private static void siftDown(long[] heap, int size, int position) {
+        long entry = heap[position];
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (entry <= heap[child]) {
+                break;
             }
+            heap[position] = heap[child];
+            position = child;
         }
-        
-        System.out.println("Minimum number of rooms found. \n -> Minimum number of rooms required: " + maxOccurrences);
-        return maxOccurrences;
+        heap[position] = entry;
+    }
+
+    /**
+     * Checks whether a movie has a valid time slot: it cannot start before MIN_TIME or have a negative duration.
+     *
+     * @param index The index of the movie to be validated.
+     * @throws IllegalArgumentException if the time slot of the movie is invalid.
+     */
+    private void validateTimeSlot(int index) {
+        if (getStartTime(index) < MIN_TIME || getDuration(index) < 0) {
+            throw new IllegalArgumentException("Invalid time slot: " + getStartTime(index));
+        }
+    }
+
+    /**
+     * Gives the number of movies to be scheduled.
+     *
+     * @return The number of movies.
+     */
+    private int getNumberOfMovies() {
+        return this.table != null ? this.table.size() : this.movies.size();
+    }
+
+    /**
+     * Gives the start time of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The start time of the movie in minutes.
+     */
+    private int getStartTime(int index) {
+        return this.table != null ? this.table.getStartTime(index) : this.movies.get(index).getStartTime();
+    }
+
+    /**
+     * Gives the duration of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The duration of the movie in minutes.
+     */
+    private int getDuration(int index) {
+        return this.table != null ? this.table.getDuration(index) : this.movies.get(index).getDuration();
+    }
+
+    /**
+     * Gives the end time of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The end time of the movie in minutes.
+     */
+    private long getEndTime(int index) {
+        return this.table != null ? this.table.getEndTime(index) : this.movies.get(index).getEndTime();
+    }
+
+    /**
+     * Gives a movie, as a row view if the movies are stored in a table.
+     *
+     * @param index The index of the movie.
+     * @return The movie.
+     */
+    private Movie getMovie(int index) {
+        return this.table != null ? this.table.getMovie(index) : this.movies.get(index);
     }
 }
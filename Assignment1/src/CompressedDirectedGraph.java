@@ -0,0 +1,313 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of a directed graph in compressed sparse row (CSR) form.
+ *
+ * The out-arcs of node i are stored in the positions offsets[i] up to (but excluding) offsets[i + 1]
+ * of the targets and weights arrays. Nodes and arcs are identified by their index, so no arc objects,
+ * boxed values or hash lookups are needed while traversing the graph. The map that gives the index of a node is
+ * only built when a node is first looked up.
+ *
+ * @author 611968bq - Berend Quist
+ *
+ * @param <V> the type of data associated with nodes in this graph
+ */
+public class CompressedDirectedGraph<V> {
+    protected final List<V> nodes;
+    protected final boolean nodesAreRows;
+    protected volatile Map<V, Integer> nodeIndices;  // Built on the first lookup of a node, never for a graph of rows
+
+    protected final int[] offsets;
+    protected final int[] targets;
+    protected final double[] weights;
+
+    /**
+     * Constructs a compressed graph from its CSR arrays. The arrays are copied, so later changes to them
+     * are not reflected in the graph.
+     *
+     * @param nodes The data associated with the nodes, in index order.
+     * @param offsets The offsets of the out-arcs per node, of length nodes.size() + 1.
+     * @param targets The index of the destination of every arc.
+     * @param weights The weight of every arc.
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph.
+     */
+    public CompressedDirectedGraph(List<V> nodes, int[] offsets, int[] targets, double[] weights) {
+        this(Collections.unmodifiableList(new ArrayList<>(nodes)), false, offsets.clone(), targets.clone(), weights.clone());
+        validateArcs();
+    }
+
+    /**
+     * Constructs a compressed graph from its nodes and CSR arrays. The arrays are not copied,
+     * so they must not be changed by the caller afterwards.
+     *
+     * @param nodes The data associated with the nodes, in index order.
+     * @param nodesAreRows Whether every node is its own index, so no index map is needed.
+     * @param offsets The offsets of the out-arcs per node, of length nodes.size() + 1.
+     * @param targets The index of the destination of every arc.
+     * @param weights The weight of every arc.
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph.
+     */
+    private CompressedDirectedGraph(List<V> nodes, boolean nodesAreRows, int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length != nodes.size() + 1 || offsets[0] != 0) {
+            throw new IllegalArgumentException("The offsets must contain one entry per node plus one, starting at 0.");
+        }
+        if (targets.length != weights.length || offsets[nodes.size()] != targets.length) {
+            throw new IllegalArgumentException("The number of targets and weights must equal the number of arcs.");
+        }
+
+        this.nodes = nodes;
+        this.nodesAreRows = nodesAreRows;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates a compressed graph whose nodes are the rows 0, 1, ..., n - 1 of a table. Every node is its own index,
+     * so no node objects or index map are stored. The arrays are copied.
+     *
+     * @param numberOfNodes The number of nodes.
+     * @param offsets The offsets of the out-arcs per node, of length numberOfNodes + 1.
+     * @param targets The index of the destination of every arc.
+     * @param weights The weight of every arc.
+     * @return The compressed graph.
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph.
+     */
+    public static CompressedDirectedGraph<Integer> ofRows(int numberOfNodes, int[] offsets, int[] targets, double[] weights) {
+        CompressedDirectedGraph<Integer> graph = wrapRows(numberOfNodes, offsets.clone(), targets.clone(), weights.clone());
+        graph.validateArcs();
+        return graph;
+    }
+
+    /**
+     * Creates a compressed graph whose nodes are the rows 0, 1, ..., n - 1 of a table, taking ownership of the arrays.
+     * The arrays are not copied, so they must not be changed by the caller afterwards.
+     *
+     * @param numberOfNodes The number of nodes.
+     * @param offsets The offsets of the out-arcs per node, of length numberOfNodes + 1.
+     * @param targets The index of the destination of every arc.
+     * @param weights The weight of every arc.
+     * @return The compressed graph.
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph.
+     */
+    static CompressedDirectedGraph<Integer> wrapRows(int numberOfNodes, int[] offsets, int[] targets, double[] weights) {
+        List<Integer> rows = new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                Objects.checkIndex(index, numberOfNodes);
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return numberOfNodes;
+            }
+        };
+        return new CompressedDirectedGraph<>(rows, true, offsets, targets, weights);
+    }
+
+    /**
+     * Creates a compressed graph from its CSR arrays, taking ownership of the arrays.
+     * The arrays are not copied, so they must not be changed by the caller afterwards.
+     *
+     * @param nodes The data associated with the nodes, in index order.
+     * @param offsets The offsets of the out-arcs per node, of length nodes.size() + 1.
+     * @param targets The index of the destination of every arc.
+     * @param weights The weight of every arc.
+     * @return The compressed graph.
+     * @throws IllegalArgumentException if the arrays do not describe a valid graph.
+     */
+    static <V> CompressedDirectedGraph<V> wrap(List<V> nodes, int[] offsets, int[] targets, double[] weights) {
+        return new CompressedDirectedGraph<>(Collections.unmodifiableList(new ArrayList<>(nodes)), false, offsets, targets, weights);
+    }
+
+    /**
+     * Checks that the offsets never decrease and that every arc leads to a node of the graph. Only the arrays
+     * of the caller are checked, as the arrays built within the package are valid by construction.
+     *
+     * @throws IllegalArgumentException if an offset decreases or an arc leads outside the graph.
+     */
+    private void validateArcs() {
+        int numberOfNodes = this.nodes.size();
+        for (int i = 0; i < numberOfNodes; i++) {
+            if (this.offsets[i] > this.offsets[i + 1]) {
+                throw new IllegalArgumentException("The offsets must not decrease.");
+            }
+        }
+        for (int target : this.targets) {
+            if (target < 0 || target >= numberOfNodes) {
+                throw new IllegalArgumentException("Every arc must lead to a node in the graph.");
+            }
+        }
+    }
+
+    /**
+     * Gives the index of every node, building the map on the first call. The map is only needed to look up nodes,
+     * so traversals of the graph never pay for it.
+     *
+     * @return A map from every node to its index.
+     */
+    private Map<V, Integer> getNodeIndices() {
+        Map<V, Integer> nodeIndices = this.nodeIndices;
+        if (nodeIndices == null) {
+            nodeIndices = new HashMap<>();
+            for (int i = 0; i < this.nodes.size(); i++) {
+                nodeIndices.put(this.nodes.get(i), i);
+            }
+            this.nodeIndices = nodeIndices;  // A race at most builds an equal map twice
+        }
+        return nodeIndices;
+    }
+
+    /**
+     * Creates a compressed snapshot of a directed graph. Later changes to the graph are not reflected in the snapshot.
+     *
+     * @param graph The graph to compress.
+     * @return The compressed graph, with the same node indices as the original graph.
+     */
+    public static <V> CompressedDirectedGraph<V> fromGraph(DirectedGraph<V> graph) {
+        int numberOfNodes = graph.getNumberOfNodes();
+        int[] offsets = new int[numberOfNodes + 1];
+        int[] targets = new int[graph.getNumberOfArcs()];
+        double[] weights = new double[graph.getNumberOfArcs()];
+
+        int arc = 0;
+        for (int i = 0; i < numberOfNodes; i++) {
+            offsets[i] = arc;
+            for (DirectedGraphArc<V> outArc : graph.getOutArcs(graph.getNode(i))) {
+                targets[arc] = outArc.getToIndex() >= 0 ? outArc.getToIndex() : graph.getIndex(outArc.getTo());
+                weights[arc] = outArc.getWeight();
+                arc++;
+            }
+        }
+        offsets[numberOfNodes] = arc;
+
+        return wrap(graph.getNodes(), offsets, targets, weights);
+    }
+
+    /**
+     * The total number of nodes in this graph.
+     *
+     * @return The number of nodes in the graph.
+     */
+    public int getNumberOfNodes() {
+        return this.nodes.size();
+    }
+
+    /**
+     * The total number of arcs in this graph.
+     *
+     * @return The number of arcs in the graph.
+     */
+    public int getNumberOfArcs() {
+        return this.targets.length;
+    }
+
+    /**
+     * Gives a list of all nodes in the graph, in index order.
+     *
+     * @return The nodes in the graph.
+     */
+    public List<V> getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Gives the node stored at a particular index.
+     *
+     * @param index The index of the node.
+     * @return The node at that index.
+     */
+    public V getNode(int index) {
+        return this.nodes.get(index);
+    }
+
+    /**
+     * Gives the index of a node in the graph.
+     *
+     * @param node The node for which we want the index.
+     * @return The index of the node, or -1 if the node is not in the graph.
+     */
+    public int getIndex(V node) {
+        if (this.nodesAreRows) {
+            Integer row = (Integer) node;
+            return row != null && row >= 0 && row < this.nodes.size() ? row : -1;
+        }
+        Integer index = getNodeIndices().get(node);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Checks whether a node is in the graph.
+     *
+     * @param node The node to look for.
+     * @return True if the node is in the graph, false otherwise.
+     */
+    public boolean containsNode(V node) {
+        if (this.nodesAreRows) {
+            return getIndex(node) != -1;
+        }
+        return getNodeIndices().containsKey(node);
+    }
+
+    /**
+     * Gives the position of the first out-arc of a node.
+     *
+     * @param node The index of the node.
+     * @return The position of the first out-arc of the node.
+     */
+    public int getArcsStart(int node) {
+        return this.offsets[node];
+    }
+
+    /**
+     * Gives the position after the last out-arc of a node.
+     *
+     * @param node The index of the node.
+     * @return The (exclusive) end position of the out-arcs of the node.
+     */
+    public int getArcsEnd(int node) {
+        return this.offsets[node + 1];
+    }
+
+    /**
+     * Gives the index of the destination of an arc.
+     *
+     * @param arc The position of the arc.
+     * @return The index of the destination node.
+     */
+    public int getArcTarget(int arc) {
+        return this.targets[arc];
+    }
+
+    /**
+     * Gives the weight of an arc.
+     *
+     * @param arc The position of the arc.
+     * @return The weight of the arc.
+     */
+    public double getArcWeight(int arc) {
+        return this.weights[arc];
+    }
+
+    /**
+     * Gives the out-degree of a node.
+     *
+     * @param node The index of the node.
+     * @return The out-degree of the node.
+     */
+    public int getOutDegree(int node) {
+        return this.offsets[node + 1] - this.offsets[node];
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedDirectedGraph [nodes=" + getNumberOfNodes() + ", arcs=" + getNumberOfArcs() + "]";
+    }
+}
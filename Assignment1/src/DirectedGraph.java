@@ -2,9 +2,11 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Simple class that can be used to model directed graphs, where arbitrary types
@@ -16,6 +18,12 @@ import java.util.Map;
  * It is assumed that the data type associated with the nodes has a consistent
  * implementation of hashCode() and equals().
  * 
+ * Every node is assigned a dense index, which equals its position in
+ * getNodes(). Arcs carry the indices of their end-points, such that algorithms
+ * can work with arrays indexed by node rather than looking nodes up in lists.
+ * When a node is removed, the later nodes move down by one index, so the nodes
+ * keep their order. Removing a node takes O(n + m) time.
+ * 
  * @author Bart van Rossum
  * 
  * @param <V> the type of data associated with nodes in this graph
@@ -24,9 +32,11 @@ import java.util.Map;
 public class DirectedGraph<V>
 {
 	protected final List<V> nodes;
+	protected final Map<V, Integer> nodeIndices;
 	protected final List<DirectedGraphArc<V>> arcs;
 	protected final Map<V, List<DirectedGraphArc<V>>> outArcs;
 	protected final Map<V, List<DirectedGraphArc<V>>> inArcs;
+	protected long modificationCount;
 
 	/**
 	 * Creates an empty graph with no nodes or arcs.
@@ -34,6 +44,7 @@ public class DirectedGraph<V>
 	public DirectedGraph()
 	{
 		this.nodes = new ArrayList<>();
+		this.nodeIndices = new LinkedHashMap<>();
 		this.arcs = new ArrayList<>();
 		this.outArcs = new LinkedHashMap<>();
 		this.inArcs = new LinkedHashMap<>();
@@ -58,9 +69,11 @@ public class DirectedGraph<V>
 		}
 		else
 		{
+			nodeIndices.put(node, nodes.size());
 			nodes.add(node);
 			inArcs.put(node, new ArrayList<>());
 			outArcs.put(node, new ArrayList<>());
+			modificationCount++;
 		}
 	}
 
@@ -78,10 +91,34 @@ public class DirectedGraph<V>
 		{
 			throw new IllegalArgumentException("Unable to add arcs between nodes not in the graph");
 		}
-		DirectedGraphArc<V> a = new DirectedGraphArc<>(from, to, weight);
+		DirectedGraphArc<V> a = new DirectedGraphArc<>(from, to, weight, nodeIndices.get(from), nodeIndices.get(to));
+		outArcs.get(from).add(a);
+		inArcs.get(to).add(a);
+		arcs.add(a);
+		modificationCount++;
+	}
+
+	/**
+	 * Adds an arc to this graph, identifying the end points by their index.
+	 * 
+	 * @param fromIndex the index of the origin node of the arc to be added
+	 * @param toIndex   the index of the destination of the arc to be added
+	 * @param weight    the weight of the arc
+	 * @throws IllegalArgumentException if one of the indices is not in the graph
+	 */
+	public void addArc(int fromIndex, int toIndex, double weight) throws IllegalArgumentException
+	{
+		if (fromIndex < 0 || fromIndex >= nodes.size() || toIndex < 0 || toIndex >= nodes.size())
+		{
+			throw new IllegalArgumentException("Unable to add arcs between nodes not in the graph");
+		}
+		V from = nodes.get(fromIndex);
+		V to = nodes.get(toIndex);
+		DirectedGraphArc<V> a = new DirectedGraphArc<>(from, to, weight, fromIndex, toIndex);
 		outArcs.get(from).add(a);
 		inArcs.get(to).add(a);
 		arcs.add(a);
+		modificationCount++;
 	}
 
 	public void removeNode(V node) throws IllegalArgumentException
@@ -90,25 +127,44 @@ public class DirectedGraph<V>
 		{
 			throw new IllegalArgumentException("Unable to remove null from the graph");
 		}
-		else if (!nodes.contains(node))
+		else if (!nodeIndices.containsKey(node))
 		{
 			throw new IllegalArgumentException("Unable to remove node that is not in the graph");
 		}
 		else
 		{
-			nodes.remove(node);
+			int index = nodeIndices.remove(node);
+			Set<DirectedGraphArc<V>> removedArcs = Collections.newSetFromMap(new IdentityHashMap<>());
 			for (DirectedGraphArc<V> arc : inArcs.get(node))
 			{
-				arcs.remove(arc);
+				removedArcs.add(arc);
 				outArcs.get(arc.getFrom()).remove(arc);
 			}
 			inArcs.remove(node);
 			for (DirectedGraphArc<V> arc : outArcs.get(node))
 			{
-				arcs.remove(arc);
+				removedArcs.add(arc);
 				inArcs.get(arc.getTo()).remove(arc);
 			}
 			outArcs.remove(node);
+			// A single pass over the arcs, rather than one per removed arc
+			arcs.removeIf(removedArcs::contains);
+			// The later nodes move down by one, so the nodes keep their order
+			nodes.remove(index);
+			for (int i = index; i < nodes.size(); i++)
+			{
+				V laterNode = nodes.get(i);
+				nodeIndices.put(laterNode, i);
+				for (DirectedGraphArc<V> arc : outArcs.get(laterNode))
+				{
+					arc.setFromIndex(i);
+				}
+				for (DirectedGraphArc<V> arc : inArcs.get(laterNode))
+				{
+					arc.setToIndex(i);
+				}
+			}
+			modificationCount++;
 		}
 	}
 
@@ -127,6 +183,7 @@ public class DirectedGraph<V>
 			arcs.remove(arc);
 			outArcs.get(arc.getFrom()).remove(arc);
 			inArcs.get(arc.getTo()).remove(arc);
+			modificationCount++;
 		}
 	}
 
@@ -140,6 +197,41 @@ public class DirectedGraph<V>
 		return Collections.unmodifiableList(nodes);
 	}
 
+	/**
+	 * Gives the node stored at a particular index in the graph
+	 * 
+	 * @param index the index of the node
+	 * @return the node at that index
+	 * @throws IndexOutOfBoundsException if the index is not in the graph
+	 */
+	public V getNode(int index) throws IndexOutOfBoundsException
+	{
+		return nodes.get(index);
+	}
+
+	/**
+	 * Gives the index of a node in the graph in constant time
+	 * 
+	 * @param node the node for which we want the index
+	 * @return the index of the node, or -1 if the node is not in the graph
+	 */
+	public int getIndex(V node)
+	{
+		Integer index = nodeIndices.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Checks in constant time whether a node is in the graph
+	 * 
+	 * @param node the node to look for
+	 * @return true if the node is in the graph, false otherwise
+	 */
+	public boolean containsNode(V node)
+	{
+		return nodeIndices.containsKey(node);
+	}
+
 	/**
 	 * Gives a list of all arcs currently in the graph
 	 * 
@@ -184,6 +276,18 @@ public class DirectedGraph<V>
 		return Collections.unmodifiableList(inArcs.get(node));
 	}
 
+	/**
+	 * Gives the number of changes made to this graph. The count increases with
+	 * every node or arc that is added or removed, so it can be used to detect
+	 * that results computed for the graph are outdated.
+	 * 
+	 * @return the number of modifications of the graph
+	 */
+	public long getModificationCount()
+	{
+		return modificationCount;
+	}
+
 	/**
 	 * The total number of nodes in this graph
 	 * 
@@ -13,6 +13,8 @@ public class DirectedGraphArc<V>
 	private final V from;
 	private final V to;
 	private final double weight;
+	private int fromIndex;
+	private int toIndex;
 
 	/**
 	 * Construct an arc of the graph
@@ -22,10 +24,27 @@ public class DirectedGraphArc<V>
 	 * @param weight the weight of this arc
 	 */
 	public DirectedGraphArc(V from, V to, double weight)
+	{
+		this(from, to, weight, -1, -1);
+	}
+
+	/**
+	 * Construct an arc of the graph that also carries the indices of its
+	 * end-points in the graph, so that these do not have to be looked up.
+	 * 
+	 * @param from      the origin of this arc
+	 * @param to        the destination of this arc
+	 * @param weight    the weight of this arc
+	 * @param fromIndex the index of the origin in the graph
+	 * @param toIndex   the index of the destination in the graph
+	 */
+	public DirectedGraphArc(V from, V to, double weight, int fromIndex, int toIndex)
 	{
 		this.from = from;
 		this.to = to;
 		this.weight = weight;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
 	}
 
 	/**
@@ -58,6 +77,49 @@ public class DirectedGraphArc<V>
 		return weight;
 	}
 
+	/**
+	 * Used to retrieve the index of the origin of this arc in the graph
+	 * 
+	 * @return the index of the origin, or -1 if the arc was created without
+	 *         indices
+	 */
+	public int getFromIndex()
+	{
+		return fromIndex;
+	}
+
+	/**
+	 * Used to retrieve the index of the destination of this arc in the graph
+	 * 
+	 * @return the index of the destination, or -1 if the arc was created without
+	 *         indices
+	 */
+	public int getToIndex()
+	{
+		return toIndex;
+	}
+
+	/**
+	 * Updates the index of the origin when the graph moves it to another index
+	 * 
+	 * @param fromIndex the new index of the origin
+	 */
+	void setFromIndex(int fromIndex)
+	{
+		this.fromIndex = fromIndex;
+	}
+
+	/**
+	 * Updates the index of the destination when the graph moves it to another
+	 * index
+	 * 
+	 * @param toIndex the new index of the destination
+	 */
+	void setToIndex(int toIndex)
+	{
+		this.toIndex = toIndex;
+	}
+
 	@Override
 	public int hashCode()
 	{
@@ -7,14 +7,23 @@ import java.util.List;
  * The directed graph begins from a specified start node, and arcs are created between movies 
  * that can be watched in sequence with a maximum wait time of 15 minutes.
  * 
+ * The same graph can be built for the rows of a MovieTable in compressed form, reading the columns of the table directly.
+ * When only the compressed graph is needed, the object graph can be skipped altogether, so it never has to fit in memory.
+ * 
  * @author 611968bq - Berend Quist
  */
 public class DirectedGraphInitialiser {
+    protected static final int MAX_WAITING_TIME = 15;
+
     protected final Sorter sorter;
     protected List<Movie> data;
+    protected final MovieTable table;  // Table of movies, used instead of the list if it is not null
 
-    protected DirectedGraph<Movie> graph = new DirectedGraph<>();
+    protected DirectedGraph<Movie> graph;
     protected DirectedGraphArc<Movie> arcs;
+    protected CompressedDirectedGraph<Movie> compressedGraph;
+    protected boolean sortedByStartTime;
+    protected final boolean compressedOnly;
 
     protected final Movie startNode;
     protected int indexStartNode;
@@ -28,22 +37,96 @@ public class DirectedGraphInitialiser {
      * @param sorter      The sorter used for sorting movies.
      */
     public DirectedGraphInitialiser(List<Movie> data, Movie startingNode, Sorter sorter) {
+        this(data, startingNode, sorter, false);
+    }
+
+    /**
+     * Constructs a DirectedGraphInitialiser with a list of movies, a starting movie node, and a sorter.
+     * When compressedOnly is true, only the compressed graph is built, straight from the data, and getGraph returns null.
+     * 
+     * @param data        The list of movies to be added to the graph.
+     * @param startingNode The movie node from which to start the graph.
+     * @param sorter      The sorter used for sorting movies.
+     * @param compressedOnly Whether to build only the compressed graph, without the object graph.
+     */
+    public DirectedGraphInitialiser(List<Movie> data, Movie startingNode, Sorter sorter, boolean compressedOnly) {
         this.data = data;
+        this.table = null;
         this.startNode = startingNode;
         this.sorter = sorter;
+        this.compressedOnly = compressedOnly;
         
-        initialiseGraph();
+        if (compressedOnly) {
+            initialiseCompressedGraph();
+        } else {
+            initialiseGraph();
+        }
+    }
+
+    /**
+     * Builds the compressed graph of the rows of a table, with arcs from the starting row onwards, in the same way as
+     * getCompressedGraph builds it for a list of movies. The nodes of the graph are the row indices, and the columns
+     * of the table are read directly, so no Movie or arc objects are created. When the rows are sorted by start time,
+     * the successors of every row form a window that is located with a binary search; otherwise all subsequent rows are checked.
+     * 
+     * @param table The table of movies.
+     * @param startRow The index of the starting row.
+     * @param sorter The sorter used to check whether the rows are sorted by start time.
+     * @return The compressed directed graph of the rows of the table.
+     * @throws IllegalArgumentException if the starting row is not in the table.
+     */
+    public static CompressedDirectedGraph<Integer> initialiseCompressedGraph(MovieTable table, int startRow, Sorter sorter) {
+        System.out.println("-----------------");
+        System.out.println("Initialising graph...");
+        if (startRow < 0 || startRow >= table.size()) {
+            throw new IllegalArgumentException("The starting node must be in the data.");
+        }
+
+        CompressedDirectedGraph<Integer> compressedGraph = new DirectedGraphInitialiser(table, startRow, sorter).buildCompressedRows();
+        System.out.println("Graph initialised.");
+        return compressedGraph;
+    }
+
+    /**
+     * Constructs a DirectedGraphInitialiser that reads the movies from the columns of a table, for building
+     * the compressed graph of its rows.
+     * 
+     * @param table The table of movies.
+     * @param startRow The index of the starting row.
+     * @param sorter The sorter used to check whether the rows are sorted by start time.
+     */
+    private DirectedGraphInitialiser(MovieTable table, int startRow, Sorter sorter) {
+        this.table = table;
+        this.startNode = null;
+        this.sorter = sorter;
+        this.compressedOnly = true;
+        this.indexStartNode = startRow;
+        this.sortedByStartTime = sorter.isDataSorted(table, MovieComparators.byStartTime(table, true));
     }
 
     /**
      * Returns the initialized directed graph containing movie nodes.
      * 
-     * @return The directed graph of movies.
+     * @return The directed graph of movies, or null if only the compressed graph was built.
      */
     public DirectedGraph<Movie> getGraph() {
         return this.graph;
     }
 
+    /**
+     * Returns the directed graph of movies in compressed sparse row form. When the data is sorted by start time,
+     * the arrays are filled directly from the start time windows, without going through arc objects.
+     * The compressed graph is built on the first call (or by the constructor) and reused afterwards.
+     * 
+     * @return The compressed directed graph of movies.
+     */
+    public CompressedDirectedGraph<Movie> getCompressedGraph() {
+        if (this.compressedGraph == null) {
+            this.compressedGraph = buildCompressedGraph();
+        }
+        return this.compressedGraph;
+    }
+
     /**
      * Returns the arcs (edges) in the directed graph, which represent valid transitions between movies.
      * 
@@ -66,10 +149,43 @@ public class DirectedGraphInitialiser {
         System.out.println("Graph initialised.");
     }
 
+    /**
+     * Initializes only the compressed graph, without creating nodes or arcs in an object graph.
+     * 
+     * @throws IllegalArgumentException if the starting movie node is not part of the movie data.
+     */
+    private void initialiseCompressedGraph() {
+        System.out.println("-----------------");
+        System.out.println("Initialising graph...");
+        this.indexStartNode = indexOfStartNode();
+        if (this.indexStartNode == -1) {
+            throw new IllegalArgumentException("The starting node must be in the data.");
+        }
+
+        this.sortedByStartTime = this.sorter.isDataSorted(this.data, MovieComparators.byStartTime(true));
+        this.compressedGraph = buildCompressedGraph();
+        System.out.println("Graph initialised.");
+    }
+
+    /**
+     * Finds the index of the starting movie in the data, comparing movies by identity as the graph does.
+     * 
+     * @return The index of the starting movie, or -1 if it is not in the data.
+     */
+    private int indexOfStartNode() {
+        for (int i = 0; i < this.data.size(); i++) {
+            if (this.data.get(i) == this.startNode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Adds all movies from the data list to the directed graph as nodes.
      */
     private void initialiseNodes() {
+        this.graph = new DirectedGraph<>();
         for (Movie movie : this.data) {
             this.graph.addNode(movie);
         }
@@ -81,34 +197,147 @@ public class DirectedGraphInitialiser {
      * @throws IllegalArgumentException if the starting movie node is not part of the movie data.
      */
     private void initialiseStartNode() {
-        if (!this.graph.getNodes().contains(this.startNode)) {
+        if (!this.graph.containsNode(this.startNode)) {
             throw new IllegalArgumentException("The starting node must be in the data.");
         }
     
-        this.indexStartNode = this.graph.getNodes().indexOf(this.startNode);
+        this.indexStartNode = this.graph.getIndex(this.startNode);
     }
 
     /**
      * Initializes arcs between the movie nodes in the graph by checking valid transitions.
+     * If the data is sorted by start time, the valid successors of a movie form a contiguous window,
+     * which is located with a binary search. Otherwise all subsequent movies are checked.
      */
     private void initialiseArcs() {
+        this.sortedByStartTime = this.sorter.isDataSorted(this.data, MovieComparators.byStartTime(true));
+
         for (int i = this.indexStartNode; i < this.data.size(); i++) {
-            Movie currentNode = this.data.get(i);
-            createArcsForMovie(currentNode, i);
+            if (this.sortedByStartTime) {
+                createArcsInWindow(i);
+            } else {
+                createArcsForMovie(i);
+            }
         }
     }
 
+    /**
+     * Creates arcs for a given movie in data that is sorted by start time. The movies that can be watched next
+     * all start in the window [end time, end time + 15], so only the movies in that window are visited.
+     * 
+     * @param currentIndex The index of the movie for which to create arcs.
+     */
+    private void createArcsInWindow(int currentIndex) {
+        int windowEnd = findWindowEnd(currentIndex);
+        for (int j = findWindowStart(currentIndex); j < windowEnd; j++) {
+            addArcBetweenMovies(currentIndex, j);
+        }
+    }
+
+    /**
+     * Builds the compressed graph directly from the data, with the movies as its nodes.
+     * 
+     * @return The compressed directed graph of movies.
+     */
+    private CompressedDirectedGraph<Movie> buildCompressedGraph() {
+        CompressedDirectedGraph<Integer> rows = buildCompressedRows();
+        return CompressedDirectedGraph.wrap(this.data, rows.offsets, rows.targets, rows.weights);
+    }
+
+    /**
+     * Builds the compressed graph of the movies, with their indices as its nodes. The out-degree of every movie is
+     * counted first, so the offsets are computed before the arrays are filled. When the movies are sorted by
+     * start time, the out-degree is the size of the window of the movie; otherwise all subsequent movies are checked.
+     * 
+     * @return The compressed directed graph of the movie indices.
+     */
+    private CompressedDirectedGraph<Integer> buildCompressedRows() {
+        int numberOfNodes = getNumberOfMovies();
+        int[] windowStarts = new int[numberOfNodes];
+        int[] offsets = new int[numberOfNodes + 1];
+
+        for (int i = 0; i < numberOfNodes; i++) {
+            int degree = 0;
+            if (i >= this.indexStartNode && this.sortedByStartTime) {
+                windowStarts[i] = findWindowStart(i);
+                degree = Math.max(0, findWindowEnd(i) - windowStarts[i]);
+            } else if (i >= this.indexStartNode) {
+                for (int j = i + 1; j < numberOfNodes; j++) {
+                    degree += canWatchNext(i, j) ? 1 : 0;
+                }
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+
+        int[] targets = new int[offsets[numberOfNodes]];
+        double[] weights = new double[offsets[numberOfNodes]];
+        for (int i = this.indexStartNode; i < numberOfNodes; i++) {
+            int arc = offsets[i];
+            int j = this.sortedByStartTime ? windowStarts[i] : i + 1;
+            for (; arc < offsets[i + 1]; j++) {
+                if (this.sortedByStartTime || canWatchNext(i, j)) {
+                    targets[arc] = j;
+                    weights[arc] = getRating(j);
+                    arc++;
+                }
+            }
+        }
+
+        return CompressedDirectedGraph.wrapRows(numberOfNodes, offsets, targets, weights);
+    }
+
+    /**
+     * Finds the first movie after the current movie that starts at or after the end of the current movie.
+     * 
+     * @param currentIndex The index of the current movie.
+     * @return The index of the first movie in the window of the current movie.
+     */
+    private int findWindowStart(int currentIndex) {
+        return Math.max(currentIndex + 1, findFirstStartingAtOrAfter(getEndTime(currentIndex)));
+    }
+
+    /**
+     * Finds the first movie that starts too late to be watched after the current movie.
+     * 
+     * @param currentIndex The index of the current movie.
+     * @return The (exclusive) end index of the window of the current movie.
+     */
+    private int findWindowEnd(int currentIndex) {
+        return findFirstStartingAtOrAfter(getEndTime(currentIndex) + MAX_WAITING_TIME + 1);
+    }
+
+    /**
+     * Performs a binary search on the movies sorted by start time to find the first movie
+     * that starts at or after the given time.
+     * 
+     * @param time The time in minutes, which may lie beyond the range of the start times.
+     * @return The index of the first movie starting at or after the time, or the number of movies if there is none.
+     */
+    private int findFirstStartingAtOrAfter(long time) {
+        int low = 0;
+        int high = getNumberOfMovies();
+
+        while (low < high) {
+            int mid = low + (high - low) / 2;
+            if (getStartTime(mid) < time) {
+                low = mid + 1; // Move right
+            } else {
+                high = mid; // Move left
+            }
+        }
+
+        return low;
+    }
+
     /**
      * Creates arcs for a given movie by checking subsequent movies for valid transitions.
      * 
-     * @param currentNode The movie for which to create arcs.
-     * @param currentIndex The index of the current movie in the data list.
+     * @param currentIndex The index of the movie for which to create arcs.
      */
-    private void createArcsForMovie(Movie currentNode, int currentIndex) {
+    private void createArcsForMovie(int currentIndex) {
         for (int j = currentIndex + 1; j < this.data.size(); j++) {
-            Movie nextNode = this.data.get(j);
-            if (canWatchNext(currentNode, nextNode)) {
-                addArcBetweenMovies(currentNode, nextNode);
+            if (canWatchNext(currentIndex, j)) {
+                addArcBetweenMovies(currentIndex, j);
             }
         }
     }
@@ -117,35 +346,67 @@ public class DirectedGraphInitialiser {
      * Checks if the next movie can be watched after the current movie, considering the movie's duration
      * and start time, and ensuring the gap between movies is at most 15 minutes.
      * 
-     * @param currentNode The current movie node.
-     * @param nextNode The next movie node to check.
+     * @param currentIndex The index of the current movie.
+     * @param nextIndex The index of the next movie to check.
      * @return True if the next movie can be watched after the current movie, false otherwise.
      */
-    private boolean canWatchNext(Movie currentNode, Movie nextNode) {
-        int currentEndTime = currentNode.getStartTime() + currentNode.getDuration();
-        int nextStartTime = nextNode.getStartTime();
-        return currentEndTime <= nextStartTime && currentEndTime + 15 >= nextStartTime;
+    private boolean canWatchNext(int currentIndex, int nextIndex) {
+        long currentEndTime = getEndTime(currentIndex);
+        long nextStartTime = getStartTime(nextIndex);
+        return currentEndTime <= nextStartTime && currentEndTime + MAX_WAITING_TIME >= nextStartTime;
     }
 
     /**
      * Adds an arc between the current and next movie nodes in the graph if they exist in the graph.
+     * The nodes are added in the order of the data, so the data index equals the node index.
      * 
-     * @param currentNode The current movie node.
-     * @param nextNode The next movie node to which the arc should be added.
+     * @param currentIndex The index of the current movie node.
+     * @param nextIndex The index of the next movie node to which the arc should be added.
      */
-    private void addArcBetweenMovies(Movie currentNode, Movie nextNode) {
-        if (this.graph.getNodes().contains(currentNode) && this.graph.getNodes().contains(nextNode)) {
-            this.graph.addArc(currentNode, nextNode, nextNode.getRating());
+    private void addArcBetweenMovies(int currentIndex, int nextIndex) {
+        if (currentIndex < this.graph.getNumberOfNodes() && nextIndex < this.graph.getNumberOfNodes()) {
+            this.graph.addArc(currentIndex, nextIndex, this.data.get(nextIndex).getRating());
         } else {
-            System.out.println("Nodes not found in the graph: current-" + currentNode + ", next-" + nextNode);
+            System.out.println("Nodes not found in the graph: current-" + this.data.get(currentIndex) + ", next-" + this.data.get(nextIndex));
         }
     }
-}
 
     /**
-     * TODO: Improvements:
-     * You can optimize the arc creation by using a more efficient way to find the next movie to watch,
-     * possibly using a binary search to jump to the next valid movie based on its start time.
-     * This would avoid checking all subsequent movies in a loop.
+     * Gives the number of movies in the graph.
+     *
+     * @return The number of movies.
+     */
+    private int getNumberOfMovies() {
+        return this.table != null ? this.table.size() : this.data.size();
+    }
+
+    /**
+     * Gives the start time of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The start time of the movie in minutes.
+     */
+    private int getStartTime(int index) {
+        return this.table != null ? this.table.getStartTime(index) : this.data.get(index).getStartTime();
+    }
+
+    /**
+     * Gives the end time of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The end time of the movie in minutes.
      */
+    private long getEndTime(int index) {
+        return this.table != null ? this.table.getEndTime(index) : this.data.get(index).getEndTime();
+    }
 
+    /**
+     * Gives the rating of a movie, from the table if there is one.
+     *
+     * @param index The index of the movie.
+     * @return The rating of the movie.
+     */
+    private double getRating(int index) {
+        return this.table != null ? this.table.getRating(index) : this.data.get(index).getRating();
+    }
+}
@@ -0,0 +1,212 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The IncrementalCinemaScheduler class keeps the minimum number of required rooms up to date while movies are added
+ * to and removed from the schedule, without processing the whole schedule again.
+ *
+ * The time axis is divided into days, and only the days on which movies are shown are stored, so the memory use
+ * depends on the schedule rather than on the length of the time axis. A day stores only the minutes at which the
+ * number of movies changes, with +1 for every start and -1 for every end, so its memory use is O(k) for k distinct
+ * start and end minutes on that day. Adding or removing a movie sweeps over these changes to find the new maximum of
+ * every day it covers, which takes O(k) time per day. The maxima of all days are kept in a sorted multiset, from which
+ * the overall maximum is read.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class IncrementalCinemaScheduler {
+
+    private static final int MIN_TIME = 0;
+
+    private final Map<Long, DayOccupancy> days;  // The occupancy of every day on which movies are shown
+    private final TreeMap<Integer, Integer> dayMaxima;  // The number of days with a given maximum occupancy
+
+    private final Map<Movie, Integer> scheduledMovies;
+    private int numberOfMovies = 0;
+
+    /**
+     * Constructs an empty scheduler.
+     */
+    public IncrementalCinemaScheduler() {
+        this.days = new HashMap<>();
+        this.dayMaxima = new TreeMap<>();
+        this.scheduledMovies = new HashMap<>();
+    }
+
+    /**
+     * Adds a movie to the schedule.
+     *
+     * @param movie The movie to add.
+     * @throws IllegalArgumentException if the time slot of the movie is invalid.
+     */
+    public void add(Movie movie) {
+        validateTimeSlot(movie);
+        update(movie, 1);
+        this.scheduledMovies.merge(movie, 1, Integer::sum);
+        this.numberOfMovies++;
+    }
+
+    /**
+     * Removes a movie from the schedule.
+     *
+     * @param movie The movie to remove.
+     * @throws IllegalArgumentException if the movie is not in the schedule.
+     */
+    public void remove(Movie movie) {
+        Integer count = this.scheduledMovies.get(movie);
+        if (count == null) {
+            throw new IllegalArgumentException("Unable to remove a movie that is not in the schedule");
+        }
+        if (count == 1) {
+            this.scheduledMovies.remove(movie);
+        } else {
+            this.scheduledMovies.put(movie, count - 1);
+        }
+
+        update(movie, -1);
+        this.numberOfMovies--;
+    }
+
+    /**
+     * Gives the minimum number of rooms required for the current schedule, which is the maximum number of movies
+     * in any minute. This is the largest maximum over all days, so it takes O(log D) time for D days.
+     *
+     * @return The minimum number of rooms required to prevent scheduling conflicts.
+     */
+    public int findMinimumRequiredRooms() {
+        return this.dayMaxima.isEmpty() ? 0 : this.dayMaxima.lastKey();
+    }
+
+    /**
+     * Gives the number of movies in the schedule.
+     *
+     * @return The number of scheduled movies.
+     */
+    public int getNumberOfMovies() {
+        return this.numberOfMovies;
+    }
+
+    /**
+     * Gives the number of days for which the occupancy is stored.
+     *
+     * @return The number of days on which movies are shown.
+     */
+    public int getNumberOfDays() {
+        return this.days.size();
+    }
+
+    /**
+     * Adds a value to the number of movies in every minute the movie occupies, day by day.
+     *
+     * @param movie The movie.
+     * @param value The value to add: 1 when adding the movie, -1 when removing it.
+     */
+    private void update(Movie movie, int value) {
+        long movieStartTime = movie.getStartTime();
+        long movieEndTime = movie.getEndTime();
+        if (movieStartTime >= movieEndTime) {
+            return;  // The movie does not occupy any minute
+        }
+
+        long firstDay = Math.floorDiv(movieStartTime, Movie.MINUTES_PER_DAY);
+        long lastDay = Math.floorDiv(movieEndTime - 1, Movie.MINUTES_PER_DAY);
+        for (long day = firstDay; day <= lastDay; day++) {
+            long dayStartTime = day * Movie.MINUTES_PER_DAY;
+            int from = (int) (Math.max(movieStartTime, dayStartTime) - dayStartTime);
+            int to = (int) (Math.min(movieEndTime, dayStartTime + Movie.MINUTES_PER_DAY) - dayStartTime) - 1;
+            updateDay(day, from, to, value);
+        }
+    }
+
+    /**
+     * Adds a value to the number of movies in the minutes [from, to] of a day, and updates the maxima of the days.
+     * A day is created when the first movie is shown on it and dropped when the last movie is removed from it.
+     *
+     * @param day The day.
+     * @param from The first minute of the day to update.
+     * @param to The last minute of the day to update.
+     * @param value The value to add.
+     */
+    private void updateDay(long day, int from, int to, int value) {
+        DayOccupancy occupancy = this.days.get(day);
+        if (occupancy == null) {
+            occupancy = new DayOccupancy();
+            this.days.put(day, occupancy);
+        } else {
+            removeDayMaximum(occupancy.getMaximum());
+        }
+
+        occupancy.rangeAdd(from, to, value);
+        occupancy.numberOfMovies += value;
+
+        if (occupancy.numberOfMovies == 0) {
+            this.days.remove(day);
+        } else {
+            this.dayMaxima.merge(occupancy.getMaximum(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Removes one occurrence of a maximum from the multiset of day maxima.
+     *
+     * @param maximum The maximum to remove.
+     */
+    private void removeDayMaximum(int maximum) {
+        int count = this.dayMaxima.get(maximum);
+        if (count == 1) {
+            this.dayMaxima.remove(maximum);
+        } else {
+            this.dayMaxima.put(maximum, count - 1);
+        }
+    }
+
+    /**
+     * Checks whether a movie has a valid time slot: it cannot start before MIN_TIME or have a negative duration.
+     *
+     * @param movie The movie to be validated.
+     * @throws IllegalArgumentException if the time slot of the movie is invalid.
+     */
+    private void validateTimeSlot(Movie movie) {
+        if (movie.getStartTime() < MIN_TIME || movie.getDuration() < 0) {
+            throw new IllegalArgumentException("Invalid time slot: " + movie.getStartTime());
+        }
+    }
+
+    /**
+     * The number of movies per minute of a single day, stored as the changes in that number at the minutes where
+     * movies start or end.
+     */
+    private static class DayOccupancy {
+        private final TreeMap<Integer, Integer> changes = new TreeMap<>();  // Change in the number of movies at a minute, never zero
+        private int maximum = 0;  // Maximum number of movies in any minute of the day
+        private int numberOfMovies = 0;  // Number of movies shown on this day
+
+        private int getMaximum() {
+            return this.maximum;
+        }
+
+        /**
+         * Adds a value to all minutes in [from, to], and finds the new maximum by sweeping over the changes in order.
+         */
+        private void rangeAdd(int from, int to, int value) {
+            addChange(from, value);
+            addChange(to + 1, -value);
+
+            int occurrences = 0;
+            int maximum = 0;
+            for (int change : this.changes.values()) {
+                occurrences += change;
+                maximum = Math.max(maximum, occurrences);
+            }
+            this.maximum = maximum;
+        }
+
+        /**
+         * Adds a value to the change at a minute, dropping the minute when its change becomes zero.
+         */
+        private void addChange(int minute, int value) {
+            this.changes.merge(minute, value, (current, added) -> current + added == 0 ? null : current + added);
+        }
+    }
+}
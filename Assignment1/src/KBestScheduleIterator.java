@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * The KBestScheduleIterator class enumerates the K best movie schedules from a starting movie, lazily and in order
+ * of decreasing total rating. A schedule starts at the starting movie and follows the arcs of the graph.
+ *
+ * First, the best continuation after every movie is computed in a single backward pass, as every arc leads to a movie
+ * with a higher index. A priority queue then holds partial schedules, prioritised by the best total rating they can
+ * still reach, and finished schedules, prioritised by their total rating. Since the priorities are exact, the
+ * finished schedules leave the queue in order of total rating, so every next schedule only costs a few queue
+ * operations instead of a full optimisation. The queue is bounded by the number of schedules still to be returned,
+ * as every entry in the queue stands for at least one schedule with a total rating equal to its priority.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class KBestScheduleIterator implements Iterator<List<Movie>> {
+    protected final CompressedDirectedGraph<Movie> graph;
+    protected final int k;
+
+    protected final double[] continuation;
+    protected final TreeSet<ScheduleEntry> queue;
+
+    protected int numberOfReturnedSchedules = 0;
+    protected long numberOfEntries = 0;
+    protected double lastRating = Double.NaN;
+
+    /**
+     * Constructs an iterator over the K best schedules from a starting movie.
+     *
+     * @param graph The directed graph of movies.
+     * @param startingNode The starting movie of all schedules.
+     * @param k The maximum number of schedules to return.
+     * @throws IllegalArgumentException if the starting movie is not in the graph.
+     */
+    public KBestScheduleIterator(DirectedGraph<Movie> graph, Movie startingNode, int k) {
+        this(CompressedDirectedGraph.fromGraph(graph), startingNode, k);
+    }
+
+    /**
+     * Constructs an iterator over the K best schedules from a starting movie, running over a compressed graph.
+     *
+     * @param graph The compressed directed graph of movies.
+     * @param startingNode The starting movie of all schedules.
+     * @param k The maximum number of schedules to return.
+     * @throws IllegalArgumentException if the starting movie is not in the graph.
+     */
+    public KBestScheduleIterator(CompressedDirectedGraph<Movie> graph, Movie startingNode, int k) {
+        int indexStartNode = graph.getIndex(startingNode);
+        if (indexStartNode == -1) {
+            throw new IllegalArgumentException("The starting node must be in the graph.");
+        }
+
+        this.graph = graph;
+        this.k = k;
+        this.continuation = computeContinuations(indexStartNode);
+        this.queue = new TreeSet<>(Comparator.comparingDouble((ScheduleEntry entry) -> -entry.priority)
+            .thenComparingLong(entry -> entry.sequenceNumber));
+
+        double startRating = startingNode.getRating();
+        offer(new ScheduleNode(indexStartNode, null), startRating, startRating + this.continuation[indexStartNode], false);
+    }
+
+    /**
+     * Computes the best total rating that can still be added after every movie from the starting movie onwards,
+     * processing the movies from the last to the first.
+     *
+     * @param indexStartNode The index of the starting movie.
+     * @return The best continuation after every movie.
+     */
+    private double[] computeContinuations(int indexStartNode) {
+        double[] continuation = new double[this.graph.getNumberOfNodes()];
+        for (int i = this.graph.getNumberOfNodes() - 1; i >= indexStartNode; i--) {
+            for (int arc = this.graph.getArcsStart(i); arc < this.graph.getArcsEnd(i); arc++) {
+                int j = this.graph.getArcTarget(arc);
+                if (j <= i) {
+                    throw new IllegalArgumentException("The graph must only contain arcs to movies with a higher index.");
+                }
+                continuation[i] = Math.max(continuation[i], this.graph.getArcWeight(arc) + continuation[j]);
+            }
+        }
+        return continuation;
+    }
+
+    /**
+     * Checks whether there is another schedule to return.
+     *
+     * @return True if fewer than K schedules have been returned and another schedule exists.
+     */
+    @Override
+    public boolean hasNext() {
+        return this.numberOfReturnedSchedules < this.k && !this.queue.isEmpty();
+    }
+
+    /**
+     * Returns the next best schedule.
+     *
+     * @return The movies in the next best schedule, starting with the starting movie.
+     * @throws NoSuchElementException if there are no more schedules.
+     */
+    @Override
+    public List<Movie> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more schedules available.");
+        }
+
+        while (true) {
+            ScheduleEntry entry = this.queue.pollFirst();
+            if (entry.finished) {
+                this.numberOfReturnedSchedules++;
+                this.lastRating = entry.rating;
+                return entry.schedule.toList(this.graph);
+            }
+            expand(entry);
+        }
+    }
+
+    /**
+     * Gives the total rating of the schedule that was returned last.
+     *
+     * @return The total rating of the last schedule, or NaN if no schedule has been returned yet.
+     */
+    public double getLastRating() {
+        return this.lastRating;
+    }
+
+    /**
+     * Expands a partial schedule: the schedule may stop at its last movie, or continue over any of its out-arcs.
+     *
+     * @param entry The partial schedule to expand.
+     */
+    private void expand(ScheduleEntry entry) {
+        int last = entry.schedule.node;
+        offer(entry.schedule, entry.rating, entry.rating, true);
+
+        for (int arc = this.graph.getArcsStart(last); arc < this.graph.getArcsEnd(last); arc++) {
+            int next = this.graph.getArcTarget(arc);
+            double rating = entry.rating + this.graph.getArcWeight(arc);
+            offer(new ScheduleNode(next, entry.schedule), rating, rating + this.continuation[next], false);
+        }
+    }
+
+    /**
+     * Adds an entry to the queue and removes the worst entries that can no longer be among the K best.
+     *
+     * @param schedule The (partial) schedule.
+     * @param rating The total rating of the schedule so far.
+     * @param priority The best total rating the schedule can reach.
+     * @param finished True if the schedule stops at its last movie.
+     */
+    private void offer(ScheduleNode schedule, double rating, double priority, boolean finished) {
+        this.queue.add(new ScheduleEntry(schedule, rating, priority, finished, this.numberOfEntries++));
+
+        int remaining = this.k - this.numberOfReturnedSchedules;
+        while (this.queue.size() > remaining) {
+            this.queue.pollLast();
+        }
+    }
+
+    /**
+     * A schedule as a linked list from its last movie back to the starting movie,
+     * so that schedules with the same beginning share their nodes.
+     */
+    private static class ScheduleNode {
+        private final int node;
+        private final ScheduleNode previous;
+
+        private ScheduleNode(int node, ScheduleNode previous) {
+            this.node = node;
+            this.previous = previous;
+        }
+
+        private List<Movie> toList(CompressedDirectedGraph<Movie> graph) {
+            List<Movie> schedule = new ArrayList<>();
+            for (ScheduleNode current = this; current != null; current = current.previous) {
+                schedule.add(graph.getNode(current.node));
+            }
+            Collections.reverse(schedule);
+            return schedule;
+        }
+    }
+
+    /**
+     * An entry in the queue. Entries with the same priority are ordered by insertion, which keeps the order deterministic.
+     */
+    private static class ScheduleEntry {
+        private final ScheduleNode schedule;
+        private final double rating;
+        private final double priority;
+        private final boolean finished;
+        private final long sequenceNumber;
+
+        private ScheduleEntry(ScheduleNode schedule, double rating, double priority, boolean finished, long sequenceNumber) {
+            this.schedule = schedule;
+            this.rating = rating;
+            this.priority = priority;
+            this.finished = finished;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
+}
@@ -24,11 +24,11 @@ public class Main {
 
         CSVHandler csvReader = new CSVHandler();
         try {
-            file1 = csvReader.processData("Assignment1/data/movies_1.csv");
-            file2 = csvReader.processData("Assignment1/data/movies_2.csv");
-            file3 = csvReader.processData("Assignment1/data/movies_3.csv");
-            file4 = csvReader.processData("Assignment1/data/movies_4.csv");
-            file5 = csvReader.processData("Assignment1/data/movies_5.csv");
+            file1 = csvReader.processDataMapped("Assignment1/data/movies_1.csv");
+            file2 = csvReader.processDataMapped("Assignment1/data/movies_2.csv");
+            file3 = csvReader.processDataMapped("Assignment1/data/movies_3.csv");
+            file4 = csvReader.processDataMapped("Assignment1/data/movies_4.csv");
+            file5 = csvReader.processDataMapped("Assignment1/data/movies_5.csv");
         } catch (IOException e) {
             System.err.println("Error reading the CSV file: " + e.getMessage());
         }
@@ -82,6 +82,15 @@ public class Main {
         assignments.runAssignment1e(file4, "File4");
         assignments.runAssignment1e(file5, "File5");
 
+        // ------------- Check the single-pass optimisation -------------
+        System.out.println("\n\n******************************************************************************************************");
+        System.out.println("Checking the single-pass optimisation against testing all starting points");
+        assignments.checkAllStartingNodes(file1, "File1");
+        assignments.checkAllStartingNodes(file2, "File2");
+        assignments.checkAllStartingNodes(file3, "File3");
+        assignments.checkAllStartingNodes(file4, "File4");
+        assignments.checkAllStartingNodes(file5, "File5");
+
         // ------------- Run Assignment 1f -------------
         System.out.println("\n\n******************************************************************************************************");
         System.out.println("Running Assignment 1f: Finding the minimum number of rooms required to show all movies");
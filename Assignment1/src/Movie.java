@@ -9,7 +9,10 @@
  * @author 611968bq - Berend Quist
  */
 public class Movie {
+    public static final int MINUTES_PER_DAY = 1440;
+
     protected final String title;
+    protected TitleDictionary.Entry titleEntry;  // Created on first use for a title that is not from a dictionary
     protected final Double rating;
     protected final int duration;
     protected final int startTime;
@@ -20,7 +23,7 @@ public class Movie {
      * @param title    The title of the movie.
      * @param rating   The rating of the movie.
      * @param duration The duration of the movie in minutes.
-     * @param startTime The start time of the movie in minutes (from 00:00).
+     * @param startTime The start time of the movie in minutes (from 00:00 of the first day, or since the epoch).
      */
     public Movie(String title, Double rating, int duration, int startTime) {
         this.title = title;
@@ -29,6 +32,23 @@ public class Movie {
         this.startTime = startTime;
     }
 
+    /**
+     * Constructs a new movie object with a title from a title dictionary, which is shared with the other movies
+     * with the same title.
+     * 
+     * @param titleEntry The entry of the title of the movie in a title dictionary.
+     * @param rating     The rating of the movie.
+     * @param duration   The duration of the movie in minutes.
+     * @param startTime  The start time of the movie in minutes (from 00:00 of the first day, or since the epoch).
+     */
+    public Movie(TitleDictionary.Entry titleEntry, Double rating, int duration, int startTime) {
+        this.title = titleEntry.getTitle();
+        this.titleEntry = titleEntry;
+        this.rating = rating;
+        this.duration = duration;
+        this.startTime = startTime;
+    }
+
     /**
      * Creates a new partial movie object with the given values.
      * If any value is null, it uses a default value.
@@ -59,6 +79,48 @@ public class Movie {
         return this.title;
     }
 
+    /**
+     * Gets the id of the title of the movie in its title dictionary.
+     * 
+     * @return The id of the title, or -1 if the title is not from a dictionary.
+     */
+    public int getTitleId() {
+        return this.titleEntry == null ? -1 : this.titleEntry.getId();
+    }
+
+    /**
+     * Gets the entry of the title of the movie, with its cached lowercase title and title key. For a title that is
+     * not from a dictionary, the entry is only created when it is first needed.
+     * 
+     * @return The entry of the title.
+     */
+    public TitleDictionary.Entry getTitleEntry() {
+        TitleDictionary.Entry entry = this.titleEntry;
+        if (entry == null) {
+            entry = TitleDictionary.Entry.of(this.title);
+            this.titleEntry = entry;  // Entries are immutable, so a race at most creates an equal entry twice
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the title of the movie in lowercase, which is computed once per title.
+     * 
+     * @return The lowercase title of the movie.
+     */
+    public String getLowercaseTitle() {
+        return getTitleEntry().getLowercaseTitle();
+    }
+
+    /**
+     * Gets the key by which titles are compared: the first character of the lowercase title.
+     * 
+     * @return The first character of the lowercase title, or -1 if the title is empty.
+     */
+    public int getTitleKey() {
+        return getTitleEntry().getKey();
+    }
+
     /**
      * Gets the rating of the movie.
      * 
@@ -86,6 +148,25 @@ public class Movie {
         return this.startTime;
     }
 
+    /**
+     * Gets the end time of the movie. The end time is computed as a long, so it cannot overflow
+     * for start times far along the time axis.
+     * 
+     * @return The end time of the movie in minutes.
+     */
+    public long getEndTime() {
+        return (long) this.startTime + this.duration;
+    }
+
+    /**
+     * Gets the day on which the movie starts, where day 0 starts at minute 0.
+     * 
+     * @return The day of the start time of the movie.
+     */
+    public long getDay() {
+        return Math.floorDiv(this.startTime, MINUTES_PER_DAY);
+    }
+
     /**
      * Compares two movies based on their title (first character), rating, duration, and start time.
      * If the titles are the same, it will compare by rating. If the ratings are the same,
@@ -106,15 +187,13 @@ public class Movie {
     }
 
     /**
-     * Compares two movies based on their titles' first characters.
+     * Compares two movies based on their titles' first characters, using the cached title keys.
      * 
      * @param other The other movie to compare.
      * @return A negative integer, zero, or a positive integer based on the title comparison.
      */
     private int compareByTitle(Movie other) {
-        char firstLetterMovie1 = this.title.toLowerCase().charAt(0);
-        char firstLetterMovie2 = other.title.toLowerCase().charAt(0);
-        return Character.compare(firstLetterMovie1, firstLetterMovie2);
+        return Integer.compare(getTitleKey(), other.getTitleKey());
     }
 
     /**
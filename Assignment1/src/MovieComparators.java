@@ -11,28 +11,36 @@ import java.util.Comparator;
  * - Title, then by Rating (with optional ascending/descending order)
  * 
  * These comparators can be used with sorting methods like Collections.sort() or Streams.
+ * Every method returns the same comparator object on every call with the same order, so the comparators can be
+ * used as keys, for example for the sorted orders cached by the Sorter.
+ * For every comparator there is also a row comparator with the same order over the columns of a MovieTable.
  * 
  * @author 611968bq - Berend Quist
  */
 public class MovieComparators {
+    // The comparators for lists of movies do not depend on any arguments other than the order, so they are created once
+    private static final Comparator<Movie> BY_TITLE = (m1, m2) -> Integer.compare(m1.getTitleKey(), m2.getTitleKey());  // First characters, ignoring case
+    private static final Comparator<Movie> BY_RATING = (m1, m2) -> Double.compare(m1.getRating(), m2.getRating());
+    private static final Comparator<Movie> BY_DURATION = (m1, m2) -> Integer.compare(m1.getDuration(), m2.getDuration());
+    private static final Comparator<Movie> BY_START_TIME = (m1, m2) -> Integer.compare(m1.getStartTime(), m2.getStartTime());
+    private static final Comparator<Movie> BY_TITLE_THEN_RATING = BY_TITLE.thenComparing(BY_RATING);
+
+    private static final Comparator<Movie> BY_TITLE_DESCENDING = BY_TITLE.reversed();
+    private static final Comparator<Movie> BY_RATING_DESCENDING = BY_RATING.reversed();
+    private static final Comparator<Movie> BY_DURATION_DESCENDING = BY_DURATION.reversed();
+    private static final Comparator<Movie> BY_START_TIME_DESCENDING = BY_START_TIME.reversed();
+    private static final Comparator<Movie> BY_TITLE_THEN_RATING_DESCENDING = BY_TITLE_THEN_RATING.reversed();
 
     /**
      * Returns a comparator for sorting movies by title.
-     * The comparison is case-insensitive and considers only the first character of the title.
+     * The comparison is case-insensitive and considers only the first character of the title,
+     * which is cached per title as the title key.
      * 
      * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
      * @return A comparator for sorting movies by title.
      */
     public static Comparator<Movie> byTitle(boolean ascending) {
-        return (m1, m2) -> {
-            // Compare first characters of the movie titles, ignoring case
-            char firstChar1 = m1.getTitle().toLowerCase().charAt(0);
-            char firstChar2 = m2.getTitle().toLowerCase().charAt(0);
-            
-            int result = Character.compare(firstChar1, firstChar2);
-            
-            return ascending ? result : -result;
-        };
+        return ascending ? BY_TITLE : BY_TITLE_DESCENDING;
     }
 
     /**
@@ -42,10 +50,7 @@ public class MovieComparators {
      * @return A comparator for sorting movies by rating.
      */
     public static Comparator<Movie> byRating(boolean ascending) {
-        return (m1, m2) -> {
-            int result = Double.compare(m1.getRating(), m2.getRating());
-            return ascending ? result : -result;
-        };
+        return ascending ? BY_RATING : BY_RATING_DESCENDING;
     }
 
     /**
@@ -55,10 +60,7 @@ public class MovieComparators {
      * @return A comparator for sorting movies by duration.
      */
     public static Comparator<Movie> byDuration(boolean ascending) {
-        return (m1, m2) -> {
-            int result = Integer.compare(m1.getDuration(), m2.getDuration());
-            return ascending ? result : -result;
-        };
+        return ascending ? BY_DURATION : BY_DURATION_DESCENDING;
     }
 
     /**
@@ -68,10 +70,7 @@ public class MovieComparators {
      * @return A comparator for sorting movies by start time.
      */
     public static Comparator<Movie> byStartTime(boolean ascending) {
-        return (m1, m2) -> {
-            int result = Integer.compare(m1.getStartTime(), m2.getStartTime());
-            return ascending ? result : -result;
-        };
+        return ascending ? BY_START_TIME : BY_START_TIME_DESCENDING;
     }
 
     /**
@@ -82,16 +81,80 @@ public class MovieComparators {
      * @return A comparator for sorting movies by title, then by rating if the titles are the same.
      */
     public static Comparator<Movie> byTitleThenRating(boolean ascending) {
-        return (m1, m2) -> {
-            // First, compare by title
-            int result = byTitle(ascending).compare(m1, m2);
+        return ascending ? BY_TITLE_THEN_RATING : BY_TITLE_THEN_RATING_DESCENDING;
+    }
 
-            // If titles are the same, compare by rating
-            if (result == 0) {
-                result = byRating(ascending).compare(m1, m2);
-            }
+    /**
+     * Returns a row comparator for sorting the rows of a table by title, in the same order as byTitle.
+     * 
+     * @param table The table whose rows are compared.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @return A row comparator for sorting rows by title.
+     */
+    public static MovieTable.RowComparator byTitle(MovieTable table, boolean ascending) {
+        return (row1, row2) -> {
+            // Compare first characters of the movie titles, ignoring case
+            int result = Integer.compare(table.getTitleKey(row1), table.getTitleKey(row2));
+
+            return ascending ? result : -result;
+        };
+    }
 
-            return result;
+    /**
+     * Returns a row comparator for sorting the rows of a table by rating.
+     * 
+     * @param table The table whose rows are compared.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @return A row comparator for sorting rows by rating.
+     */
+    public static MovieTable.RowComparator byRating(MovieTable table, boolean ascending) {
+        return (row1, row2) -> {
+            int result = Double.compare(table.getRating(row1), table.getRating(row2));
+            return ascending ? result : -result;
+        };
+    }
+
+    /**
+     * Returns a row comparator for sorting the rows of a table by duration.
+     * 
+     * @param table The table whose rows are compared.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @return A row comparator for sorting rows by duration.
+     */
+    public static MovieTable.RowComparator byDuration(MovieTable table, boolean ascending) {
+        return (row1, row2) -> {
+            int result = Integer.compare(table.getDuration(row1), table.getDuration(row2));
+            return ascending ? result : -result;
+        };
+    }
+
+    /**
+     * Returns a row comparator for sorting the rows of a table by start time.
+     * 
+     * @param table The table whose rows are compared.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @return A row comparator for sorting rows by start time.
+     */
+    public static MovieTable.RowComparator byStartTime(MovieTable table, boolean ascending) {
+        return (row1, row2) -> {
+            int result = Integer.compare(table.getStartTime(row1), table.getStartTime(row2));
+            return ascending ? result : -result;
+        };
+    }
+
+    /**
+     * Returns a row comparator for sorting the rows of a table by title, and then by rating if the titles are the same.
+     * 
+     * @param table The table whose rows are compared.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @return A row comparator for sorting rows by title, then by rating if the titles are the same.
+     */
+    public static MovieTable.RowComparator byTitleThenRating(MovieTable table, boolean ascending) {
+        MovieTable.RowComparator byTitle = byTitle(table, ascending);
+        MovieTable.RowComparator byRating = byRating(table, ascending);
+        return (row1, row2) -> {
+            int result = byTitle.compare(row1, row2);
+            return result != 0 ? result : byRating.compare(row1, row2);
         };
     }
 }
@@ -0,0 +1,259 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MovieSnapshot class writes a list of movies to a compact binary file and reads it back, so parsed data can be
+ * reloaded without parsing text. The file stores the movies column by column:
+ * - A header with the number of movies and titles, the size of the title dictionary and a flag that tells whether
+ *   the movies are sorted by start time.
+ * - A dictionary with every distinct title once, encoded in UTF-8.
+ * - A column with the index in the dictionary of the title of every movie.
+ * - Columns with the rating, duration and start time of every movie.
+ *
+ * The snapshot is read through memory mappings: the columns are copied into primitive arrays with bulk reads, and
+ * movies with the same title share a single String. The columns can be used directly as a MovieTable, or as a list
+ * of movies.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class MovieSnapshot {
+    private static final int MAGIC = 0x4D4F5653;  // "MOVS"
+    private static final int VERSION = 1;
+    private static final int SORTED_BY_START_TIME = 1;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + Long.BYTES;
+
+    protected final MovieTable table;
+    protected final boolean sortedByStartTime;
+    protected List<Movie> movies;
+
+    /**
+     * Constructs a snapshot from the columns read from a snapshot file.
+     *
+     * @param table The table with the columns, in the order of the file.
+     * @param sortedByStartTime Whether the movies are sorted by start time.
+     */
+    private MovieSnapshot(MovieTable table, boolean sortedByStartTime) {
+        this.table = table;
+        this.sortedByStartTime = sortedByStartTime;
+    }
+
+    /**
+     * Gives the movies of the snapshot as a table, without creating Movie objects.
+     *
+     * @return The table, with the rows in the order of the file.
+     */
+    public MovieTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gives the movies of the snapshot. The Movie objects are created on the first call and reused afterwards.
+     *
+     * @return The movies, in the order of the file.
+     */
+    public List<Movie> getMovies() {
+        if (this.movies == null) {
+            this.movies = new ArrayList<>(this.table.size());
+            for (int row = 0; row < this.table.size(); row++) {
+                this.movies.add(this.table.getMovie(row));
+            }
+        }
+        return this.movies;
+    }
+
+    /**
+     * Checks whether the movies of the snapshot are sorted by start time in ascending order.
+     *
+     * @return True if the movies are sorted by start time, false otherwise.
+     */
+    public boolean isSortedByStartTime() {
+        return this.sortedByStartTime;
+    }
+
+    /**
+     * Writes a list of movies to a snapshot file. If sortByStartTime is true, the movies are written in order of start
+     * time, where movies with the same start time keep their order; otherwise they are written in the order of the list.
+     * The sorted flag is set whenever the written movies are sorted by start time.
+     *
+     * @param movies The movies to write.
+     * @param filePath The path to the snapshot file.
+     * @param sortByStartTime Whether to sort the movies by start time.
+     * @throws IOException If an I/O error occurs while writing the file.
+     * @throws IllegalArgumentException if a movie has no title or rating.
+     */
+    public static void write(List<Movie> movies, String filePath, boolean sortByStartTime) throws IOException {
+        int numberOfMovies = movies.size();
+        int[] order = sortByStartTime ? sortByStartTime(movies) : identity(numberOfMovies);
+
+        // Give every distinct title an index in the dictionary, in order of first occurrence
+        TitleDictionary titleIds = new TitleDictionary();
+        List<byte[]> titles = new ArrayList<>();
+        int[] titleColumn = new int[numberOfMovies];
+        long dictionarySize = 0;
+        boolean sorted = true;
+        for (int i = 0; i < numberOfMovies; i++) {
+            Movie movie = movies.get(order[i]);
+            if (movie.getTitle() == null || movie.getRating() == null) {
+                throw new IllegalArgumentException("Unable to write a movie without a title or rating: " + movie);
+            }
+
+            int titleId = titleIds.intern(movie.getTitle()).getId();
+            if (titleId == titles.size()) {
+                byte[] title = movie.getTitle().getBytes(StandardCharsets.UTF_8);
+                titles.add(title);
+                dictionarySize += Integer.BYTES + title.length;
+            }
+            titleColumn[i] = titleId;
+
+            if (i > 0 && movies.get(order[i - 1]).getStartTime() > movie.getStartTime()) {
+                sorted = false;
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(sorted ? SORTED_BY_START_TIME : 0);
+            output.writeInt(numberOfMovies);
+            output.writeInt(titles.size());
+            output.writeLong(dictionarySize);
+
+            for (byte[] title : titles) {
+                output.writeInt(title.length);
+                output.write(title);
+            }
+            for (int i = 0; i < numberOfMovies; i++) {
+                output.writeInt(titleColumn[i]);
+            }
+            for (int i = 0; i < numberOfMovies; i++) {
+                output.writeDouble(movies.get(order[i]).getRating());
+            }
+            for (int i = 0; i < numberOfMovies; i++) {
+                output.writeInt(movies.get(order[i]).getDuration());
+            }
+            for (int i = 0; i < numberOfMovies; i++) {
+                output.writeInt(movies.get(order[i]).getStartTime());
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param filePath The path to the snapshot file.
+     * @return The snapshot with the movies of the file.
+     * @throws IOException If an I/O error occurs while reading the file, or if the file is not a valid snapshot.
+     */
+    public static MovieSnapshot read(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a movie snapshot: " + filePath);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a movie snapshot: " + filePath);
+            }
+            boolean sorted = (header.getInt() & SORTED_BY_START_TIME) != 0;
+            int numberOfMovies = header.getInt();
+            int numberOfTitles = header.getInt();
+            long dictionarySize = header.getLong();
+
+            long position = HEADER_SIZE;
+            long expectedSize = position + dictionarySize + (long) numberOfMovies * (3 * Integer.BYTES + Double.BYTES);
+            if (numberOfMovies < 0 || numberOfTitles < 0 || dictionarySize < 0 || channel.size() != expectedSize) {
+                throw new IOException("Corrupt movie snapshot: " + filePath);
+            }
+
+            String[] titles = readDictionary(channel.map(FileChannel.MapMode.READ_ONLY, position, dictionarySize), numberOfTitles);
+            position += dictionarySize;
+
+            int[] titleColumn = new int[numberOfMovies];
+            channel.map(FileChannel.MapMode.READ_ONLY, position, (long) numberOfMovies * Integer.BYTES).asIntBuffer().get(titleColumn);
+            position += (long) numberOfMovies * Integer.BYTES;
+
+            double[] ratings = new double[numberOfMovies];
+            channel.map(FileChannel.MapMode.READ_ONLY, position, (long) numberOfMovies * Double.BYTES).asDoubleBuffer().get(ratings);
+            position += (long) numberOfMovies * Double.BYTES;
+
+            int[] durations = new int[numberOfMovies];
+            channel.map(FileChannel.MapMode.READ_ONLY, position, (long) numberOfMovies * Integer.BYTES).asIntBuffer().get(durations);
+            position += (long) numberOfMovies * Integer.BYTES;
+
+            int[] startTimes = new int[numberOfMovies];
+            channel.map(FileChannel.MapMode.READ_ONLY, position, (long) numberOfMovies * Integer.BYTES).asIntBuffer().get(startTimes);
+
+            try {
+                return new MovieSnapshot(new MovieTable(titles, titleColumn, ratings, durations, startTimes), sorted);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt movie snapshot: " + filePath, e);
+            }
+        }
+    }
+
+    /**
+     * Reads the titles of the dictionary of a snapshot.
+     *
+     * @param buffer The mapped dictionary.
+     * @param numberOfTitles The number of titles in the dictionary.
+     * @return The titles, in order of their index.
+     * @throws IOException If the dictionary is corrupt.
+     */
+    private static String[] readDictionary(ByteBuffer buffer, int numberOfTitles) throws IOException {
+        String[] titles = new String[numberOfTitles];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < numberOfTitles; i++) {
+            if (buffer.remaining() < Integer.BYTES) {
+                throw new IOException("Corrupt title dictionary");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Corrupt title dictionary");
+            }
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            buffer.get(bytes, 0, length);
+            titles[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return titles;
+    }
+
+    /**
+     * Gives the indices of the movies in order of start time. Movies with the same start time keep their order.
+     *
+     * @param movies The movies.
+     * @return The indices of the movies, sorted by start time.
+     */
+    private static int[] sortByStartTime(List<Movie> movies) {
+        int numberOfMovies = movies.size();
+        int[] startTimes = new int[numberOfMovies];
+        for (int i = 0; i < numberOfMovies; i++) {
+            startTimes[i] = movies.get(i).getStartTime();
+        }
+        return Sorter.sortIndicesByIntKey(startTimes);
+    }
+
+    /**
+     * Gives the indices 0, 1, ..., n - 1.
+     *
+     * @param n The number of indices.
+     * @return The indices in order.
+     */
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,313 @@
+import java.util.Arrays;
+
+/**
+ * The MovieTable class stores movies column by column (struct-of-arrays) instead of as separate Movie objects.
+ * Every row is a movie, and every attribute is stored in its own primitive array: the start times, durations and
+ * ratings, and the id of the title in a TitleDictionary. Scans over a single attribute therefore
+ * read a contiguous array, and a row takes 20 bytes plus its share of the dictionary.
+ *
+ * Rows are identified by their index. A Movie object for a row is only created when asked for with getMovie, so the
+ * table can be used with code that works on movies, while the algorithms that support tables work on the columns.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class MovieTable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    protected int size;
+    protected int[] titleIds;
+    protected double[] ratings;
+    protected int[] durations;
+    protected int[] startTimes;
+
+    protected final TitleDictionary titles;
+
+    /**
+     * Compares two rows of a table.
+     */
+    @FunctionalInterface
+    public interface RowComparator {
+        /**
+         * Compares two rows.
+         *
+         * @param row1 The index of the first row.
+         * @param row2 The index of the second row.
+         * @return A negative integer, zero, or a positive integer as the first row is less than, equal to,
+         *         or greater than the second row.
+         */
+        int compare(int row1, int row2);
+    }
+
+    /**
+     * Constructs an empty table with its own title dictionary.
+     */
+    public MovieTable() {
+        this(new TitleDictionary(), INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty table with its own title dictionary and room for the given number of rows.
+     *
+     * @param capacity The initial number of rows the table can hold without growing.
+     */
+    public MovieTable(int capacity) {
+        this(new TitleDictionary(), capacity);
+    }
+
+    /**
+     * Constructs an empty table that stores its titles in the given dictionary, for example the dictionary of the
+     * CSVHandler that loaded the movies.
+     *
+     * @param titles The title dictionary.
+     * @param capacity The initial number of rows the table can hold without growing.
+     */
+    public MovieTable(TitleDictionary titles, int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.titleIds = new int[capacity];
+        this.ratings = new double[capacity];
+        this.durations = new int[capacity];
+        this.startTimes = new int[capacity];
+        this.titles = titles;
+    }
+
+    /**
+     * Constructs a table from its columns. The arrays are used as they are, without copying. The titles are added to
+     * a new title dictionary, and the title indices are replaced by the ids of the titles in that dictionary.
+     *
+     * @param titles The distinct titles.
+     * @param titleIds The index in the dictionary of the title of every row.
+     * @param ratings The rating of every row.
+     * @param durations The duration of every row.
+     * @param startTimes The start time of every row.
+     * @throws IllegalArgumentException if the columns differ in length or a title index is out of range.
+     */
+    public MovieTable(String[] titles, int[] titleIds, double[] ratings, int[] durations, int[] startTimes) {
+        int numberOfRows = titleIds.length;
+        if (ratings.length != numberOfRows || durations.length != numberOfRows || startTimes.length != numberOfRows) {
+            throw new IllegalArgumentException("All columns must have the same length.");
+        }
+
+        this.size = numberOfRows;
+        this.titleIds = titleIds;
+        this.ratings = ratings;
+        this.durations = durations;
+        this.startTimes = startTimes;
+
+        this.titles = new TitleDictionary();
+        int[] ids = new int[titles.length];
+        boolean remap = false;
+        for (int i = 0; i < titles.length; i++) {
+            ids[i] = this.titles.intern(titles[i]).getId();
+            remap |= ids[i] != i;
+        }
+        for (int row = 0; row < numberOfRows; row++) {
+            if (titleIds[row] < 0 || titleIds[row] >= titles.length) {
+                throw new IllegalArgumentException("Invalid title index " + titleIds[row] + " in row " + row + ".");
+            }
+            if (remap) {
+                titleIds[row] = ids[titleIds[row]];
+            }
+        }
+    }
+
+    /**
+     * Creates a table with the movies of a collection, in the order of iteration. Movies with the same title share
+     * an entry in the dictionary. Since the movies are copied into the columns one at a time, the movies of a stream
+     * can be added without keeping them in memory.
+     *
+     * @param movies The movies.
+     * @return A table with a row for every movie.
+     */
+    public static MovieTable fromMovies(Iterable<Movie> movies) {
+        MovieTable table = new MovieTable();
+        for (Movie movie : movies) {
+            table.add(movie);
+        }
+        return table;
+    }
+
+    /**
+     * Adds a movie as a new row at the end of the table.
+     *
+     * @param movie The movie to add.
+     * @return The index of the new row.
+     * @throws IllegalArgumentException if the movie has no title or rating.
+     */
+    public int add(Movie movie) {
+        if (movie.getTitle() == null || movie.getRating() == null) {
+            throw new IllegalArgumentException("Unable to add a movie without a title or rating: " + movie);
+        }
+        if (this.size == this.startTimes.length) {
+            int capacity = Math.max(2 * this.size, INITIAL_CAPACITY);  // A table built from empty columns has no room yet
+            this.titleIds = Arrays.copyOf(this.titleIds, capacity);
+            this.ratings = Arrays.copyOf(this.ratings, capacity);
+            this.durations = Arrays.copyOf(this.durations, capacity);
+            this.startTimes = Arrays.copyOf(this.startTimes, capacity);
+        }
+
+        int row = this.size++;
+        // A movie whose title comes from the same dictionary needs no lookup
+        boolean sameDictionary = movie.getTitleId() != -1 && this.titles.contains(movie.getTitleEntry());
+        this.titleIds[row] = sameDictionary ? movie.getTitleId() : this.titles.intern(movie.getTitle()).getId();
+        this.ratings[row] = movie.getRating();
+        this.durations[row] = movie.getDuration();
+        this.startTimes[row] = movie.getStartTime();
+        return row;
+    }
+
+    /**
+     * Gives the number of rows in the table.
+     *
+     * @return The number of movies.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gives the number of distinct titles in the table.
+     *
+     * @return The number of titles in the dictionary.
+     */
+    public int getNumberOfTitles() {
+        return this.titles.size();
+    }
+
+    /**
+     * Gives the dictionary in which the titles of the table are stored.
+     *
+     * @return The title dictionary.
+     */
+    public TitleDictionary getTitleDictionary() {
+        return this.titles;
+    }
+
+    /**
+     * Gives the title of a row.
+     *
+     * @param row The index of the row.
+     * @return The title of the movie.
+     */
+    public String getTitle(int row) {
+        return this.titles.getEntry(this.titleIds[row]).getTitle();
+    }
+
+    /**
+     * Gives the title of a row in lowercase, as stored in the dictionary.
+     *
+     * @param row The index of the row.
+     * @return The lowercase title of the movie.
+     */
+    public String getLowercaseTitle(int row) {
+        return this.titles.getEntry(this.titleIds[row]).getLowercaseTitle();
+    }
+
+    /**
+     * Gives the key by which the title of a row is compared, as stored in the dictionary.
+     *
+     * @param row The index of the row.
+     * @return The first character of the lowercase title, or -1 if the title is empty.
+     */
+    public int getTitleKey(int row) {
+        return this.titles.getEntry(this.titleIds[row]).getKey();
+    }
+
+    /**
+     * Gives the index of the title of a row in the dictionary. Rows with the same title have the same index.
+     *
+     * @param row The index of the row.
+     * @return The index of the title.
+     */
+    public int getTitleId(int row) {
+        return this.titleIds[row];
+    }
+
+    /**
+     * Gives a title from the dictionary.
+     *
+     * @param titleId The index of the title.
+     * @return The title.
+     */
+    public String getTitleById(int titleId) {
+        return this.titles.getEntry(titleId).getTitle();
+    }
+
+    /**
+     * Gives the rating of a row.
+     *
+     * @param row The index of the row.
+     * @return The rating of the movie.
+     */
+    public double getRating(int row) {
+        return this.ratings[row];
+    }
+
+    /**
+     * Gives the duration of a row.
+     *
+     * @param row The index of the row.
+     * @return The duration of the movie in minutes.
+     */
+    public int getDuration(int row) {
+        return this.durations[row];
+    }
+
+    /**
+     * Gives the start time of a row.
+     *
+     * @param row The index of the row.
+     * @return The start time of the movie in minutes.
+     */
+    public int getStartTime(int row) {
+        return this.startTimes[row];
+    }
+
+    /**
+     * Gives the end time of a row, computed as a long like Movie.getEndTime.
+     *
+     * @param row The index of the row.
+     * @return The end time of the movie in minutes.
+     */
+    public long getEndTime(int row) {
+        return (long) this.startTimes[row] + this.durations[row];
+    }
+
+    /**
+     * Gives a view of a row as a Movie object. A new object is created on every call.
+     *
+     * @param row The index of the row.
+     * @return A movie with the values of the row.
+     */
+    public Movie getMovie(int row) {
+        return new Movie(this.titles.getEntry(this.titleIds[row]), this.ratings[row], this.durations[row], this.startTimes[row]);
+    }
+
+    /**
+     * Swaps two rows of the table.
+     *
+     * @param row1 The index of the first row.
+     * @param row2 The index of the second row.
+     */
+    public void swap(int row1, int row2) {
+        int titleId = this.titleIds[row1];
+        this.titleIds[row1] = this.titleIds[row2];
+        this.titleIds[row2] = titleId;
+
+        double rating = this.ratings[row1];
+        this.ratings[row1] = this.ratings[row2];
+        this.ratings[row2] = rating;
+
+        int duration = this.durations[row1];
+        this.durations[row1] = this.durations[row2];
+        this.durations[row2] = duration;
+
+        int startTime = this.startTimes[row1];
+        this.startTimes[row1] = this.startTimes[row2];
+        this.startTimes[row2] = startTime;
+    }
+
+    @Override
+    public String toString() {
+        return "MovieTable [rows=" + this.size + ", titles=" + this.titles.size() + "]";
+    }
+}
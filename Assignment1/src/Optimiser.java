@@ -1,8 +1,9 @@
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * The Optimiser class is responsible for finding the optimal path through a DirectedGraph of Movies.
@@ -11,7 +12,7 @@ import java.util.Arrays;
  * @author Berend Quist 611968bq
  */
 public class Optimiser {
-    protected final DirectedGraph<Movie> graph;
+    protected final CompressedDirectedGraph<Movie> graph;
     protected final DirectedGraphArc<Movie> arcs;
     
     protected Double[] shortestPath;
@@ -23,14 +24,18 @@ public class Optimiser {
     protected Movie startNode;
     protected int indexStartNode;
 
+    protected PrimitivePathSolver solver;
+
     protected final List<Movie> data;
     protected boolean dataSorted = false;
     protected final int numberOfNodes;
 
     protected int MAX_DURATION = 360;
+    protected static final int PARALLEL_STARTS_PER_TASK = 64;
 
     /**
-     * Constructor for the Optimiser class.
+     * Constructor for the Optimiser class. The graph is compressed once, after which all path calculations
+     * run over the compressed arrays.
      * 
      * @param data The list of movies (nodes) in the graph.
      * @param graph The directed graph of movies.
@@ -38,13 +43,25 @@ public class Optimiser {
      * @param startingNode The starting movie node for optimisation.
      */
     public Optimiser(List<Movie> data, DirectedGraph<Movie> graph, DirectedGraphArc<Movie> arcs, Movie startingNode) {
+        this(data, CompressedDirectedGraph.fromGraph(graph), arcs, startingNode);
+    }
+
+    /**
+     * Constructor for the Optimiser class that runs directly over a compressed graph.
+     * 
+     * @param data The list of movies (nodes) in the graph.
+     * @param graph The compressed directed graph of movies.
+     * @param arcs The arcs representing relationships (edges) between movies.
+     * @param startingNode The starting movie node for optimisation.
+     */
+    public Optimiser(List<Movie> data, CompressedDirectedGraph<Movie> graph, DirectedGraphArc<Movie> arcs, Movie startingNode) {
         this.data = data;
         this.graph = graph;
         this.arcs = arcs;
         this.startNode = startingNode;
         
-        this.indexStartNode = this.graph.getNodes().indexOf(this.startNode);
-        this.numberOfNodes = this.graph.getNodes().size();
+        this.indexStartNode = this.graph.getIndex(this.startNode);
+        this.numberOfNodes = this.graph.getNumberOfNodes();
         
         initialiseSequencialNodes();
         initialisePaths();
@@ -52,19 +69,25 @@ public class Optimiser {
     }
 
     /**
-     * Initializes the previousNode list with null values.
+     * Initializes the previousNode list with null values. The list is cleared rather than re-allocated when it exists.
      */
     private void initialiseSequencialNodes() {
-        this.previousNode = new ArrayList<>(Collections.nCopies(this.numberOfNodes, null));
+        if (this.previousNode == null) {
+            this.previousNode = new ArrayList<>(Collections.nCopies(this.numberOfNodes, null));
+        } else {
+            Collections.fill(this.previousNode, null);
+        }
     }
 
     /**
      * Initializes the shortestPath and longestPath arrays with default values.
-     * Sets the path values for the starting node.
+     * Sets the path values for the starting node. The arrays are only allocated once.
      */
     private void initialisePaths() {
-        this.shortestPath = new Double[this.numberOfNodes];
-        this.longestPath = new Double[this.numberOfNodes];
+        if (this.shortestPath == null) {
+            this.shortestPath = new Double[this.numberOfNodes];
+            this.longestPath = new Double[this.numberOfNodes];
+        }
 
         Arrays.fill(this.shortestPath, Double.MAX_VALUE);
         Arrays.fill(this.longestPath, Double.MIN_VALUE);
@@ -79,7 +102,9 @@ public class Optimiser {
      * Initializes the totalTime array with default values.
      */
     private void initialiseTimes() {
-        this.totalTime = new int[this.numberOfNodes];
+        if (this.totalTime == null) {
+            this.totalTime = new int[this.numberOfNodes];
+        }
         Arrays.fill(this.totalTime, 0);
         this.totalTime[this.indexStartNode] = this.startNode.getDuration();
     }
@@ -91,7 +116,7 @@ public class Optimiser {
      */
     public void setStartNode(Movie newStartNode) {
         this.startNode = newStartNode;
-        this.indexStartNode = this.graph.getNodes().indexOf(newStartNode);
+        this.indexStartNode = this.graph.getIndex(newStartNode);
 
         initialisePaths();
         initialiseTimes(); 
@@ -110,16 +135,11 @@ public class Optimiser {
             MAX_DURATION = Integer.MAX_VALUE;
         }
 
-        for (Movie movie : this.graph.nodes) {
-            int i = this.graph.nodes.indexOf(movie);
-            
-            if (i < this.indexStartNode) {
-                continue;  // Skip nodes before the starting node
-            }
-
+        // Nodes before the starting node are skipped
+        for (int i = this.indexStartNode; i < this.numberOfNodes; i++) {
             // Iterate over all arcs (edges) of the current node
-            for (DirectedGraphArc<Movie> arc : this.graph.getOutArcs(movie)) {
-                handleArcForPaths(i, arc, shortest);
+            for (int arc = this.graph.getArcsStart(i); arc < this.graph.getArcsEnd(i); arc++) {
+                handleArcForPaths(i, this.graph.getArcTarget(arc), this.graph.getArcWeight(arc), shortest);
             }
         }
         
@@ -130,26 +150,27 @@ public class Optimiser {
      * Handles an arc for updating the shortest or longest path.
      * 
      * @param i The index of the current movie.
-     * @param arc The arc representing the relationship to the next movie.
+     * @param j The index of the next movie.
+     * @param weight The weight of the arc between the movies.
      * @param shortest If true, calculates the shortest path; otherwise, calculates the longest path.
      */
-    private void handleArcForPaths(int i, DirectedGraphArc<Movie> arc, boolean shortest) {
-        int j = this.graph.nodes.indexOf(arc.getTo());
-        
+    private void handleArcForPaths(int i, int j, double weight, boolean shortest) {
+        Movie nextMovie = this.graph.getNode(j);
+
         // Skip invalid arcs or nodes before the start node
-        if (j < this.indexStartNode || !isArcValid(arc)) {
+        if (j < this.indexStartNode || !isArcValid(nextMovie)) {
             return;
         }
         
-        int totalDuration = arc.getTo().getStartTime() + arc.getTo().getDuration() - this.startNode.getStartTime();
+        int totalDuration = nextMovie.getStartTime() + nextMovie.getDuration() - this.startNode.getStartTime();
         if (totalDuration > MAX_DURATION) {
             return;
         }
 
         if (shortest) {
-            updateShortestPath(i, j, arc);
+            updateShortestPath(i, j, weight);
         } else {
-            updateLongestPath(i, j, arc);
+            updateLongestPath(i, j, weight);
         }
 
         this.totalTime[j] = totalDuration;
@@ -158,11 +179,11 @@ public class Optimiser {
     /**
      * Checks if an arc is valid by comparing start and end times of movies.
      * 
-     * @param arc The directed graph arc to be checked.
+     * @param nextMovie The destination of the arc to be checked.
      * @return true if the arc is valid, false otherwise.
      */
-    private boolean isArcValid(DirectedGraphArc<Movie> arc) {
-        return this.startNode.getStartTime() + this.startNode.getDuration() < arc.getTo().getStartTime();
+    private boolean isArcValid(Movie nextMovie) {
+        return this.startNode.getStartTime() + this.startNode.getDuration() < nextMovie.getStartTime();
     }
 
     /**
@@ -170,12 +191,12 @@ public class Optimiser {
      * 
      * @param i The index of the starting node.
      * @param j The index of the target node.
-     * @param arc The directed graph arc between nodes.
+     * @param weight The weight of the arc between nodes.
      */
-    private void updateShortestPath(int i, int j, DirectedGraphArc<Movie> arc) {
-        if (this.shortestPath[j] > this.shortestPath[i] + arc.getWeight()) {
-            this.shortestPath[j] = this.shortestPath[i] + arc.getWeight();
-            this.previousNode.set(j, this.graph.nodes.get(i));
+    private void updateShortestPath(int i, int j, double weight) {
+        if (this.shortestPath[j] > this.shortestPath[i] + weight) {
+            this.shortestPath[j] = this.shortestPath[i] + weight;
+            this.previousNode.set(j, this.graph.getNode(i));
         }
     }
 
@@ -184,12 +205,12 @@ public class Optimiser {
      * 
      * @param i The index of the starting node.
      * @param j The index of the target node.
-     * @param arc The directed graph arc between nodes.
+     * @param weight The weight of the arc between nodes.
      */
-    private void updateLongestPath(int i, int j, DirectedGraphArc<Movie> arc) {
-        if (this.longestPath[j] < this.longestPath[i] + arc.getWeight()) {
-            this.longestPath[j] = this.longestPath[i] + arc.getWeight();
-            this.previousNode.set(j, this.graph.nodes.get(i));
+    private void updateLongestPath(int i, int j, double weight) {
+        if (this.longestPath[j] < this.longestPath[i] + weight) {
+            this.longestPath[j] = this.longestPath[i] + weight;
+            this.previousNode.set(j, this.graph.getNode(i));
         }
     }
 
@@ -239,78 +260,361 @@ public class Optimiser {
     public List<Movie> findPathDisregardStartingIndex(boolean shortestPath, boolean timeLimit) {
         System.out.println("-----------------");
         System.out.println("Finding the optimal movie sequence disregarding the starting index. That is, testing all possible starting points and finding the optimal.");
-        HashMap<Movie, Double> movieScores = new HashMap<>();
-        HashMap<Movie, List<Movie>> movieSequences = new HashMap<>();
-    
-        evaluateAllStartingNodes(shortestPath, timeLimit, movieScores, movieSequences);
+        if (this.numberOfNodes == 0) {
+            return new ArrayList<>();
+        }
 
-        Movie optimalStartingMovie = getOptimalStartingMovie(movieScores);
-        List<Movie> optimalSequence = movieSequences.get(optimalStartingMovie);
+        PrimitivePathSolver pathSolver = getSolver();
+        int maxDuration = timeLimit ? MAX_DURATION : Integer.MAX_VALUE;
+        int optimalStartIndex = evaluateAllStartingNodes(pathSolver, shortestPath, maxDuration);
 
-        logOptimalPathResult(optimalStartingMovie, optimalSequence, movieScores);
+        // Search once more from the optimal starting node to recover its sequence
+        double optimalScore = pathSolver.solve(optimalStartIndex, shortestPath, maxDuration);
+        applySolution(pathSolver, optimalStartIndex);
 
-        // Set the optimal starting node and sequence for further usage
-        this.previousNode = optimalSequence;
-        this.startNode = optimalStartingMovie;
+        logOptimalPathResult(this.startNode, optimalScore);
 
         return getOptimalMovieSequence();
     }
 
     /**
-     * Evaluates the paths for all starting nodes in the graph, storing the best sequence and scores for each node.
+     * Finds the optimal movie sequence over all possible starting points in a single backward pass, without a time limit.
+     * Since every arc leads to a movie with a higher index, the best path starting at movie i only depends on the
+     * best paths of its successors: best[i] = rating[i] + max(0, max(weight + best[j] - rating[j])) over the out-arcs of i.
+     * Processing the movies from the last to the first therefore gives the best path from every start in O(n + m).
+     * It gives the same sequence as findPathDisregardStartingIndex(shortestPath, false), which Assignments.checkAllStartingNodes
+     * checks on the data files.
+     * 
+     * The graph must contain the arcs of every movie, that is, it must be built from index 0. A graph built from a later
+     * starting node has no arcs for the movies before it, so use findPathAllStartingNodes(shortestPath, indexStartNode) for it.
+     * 
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @return The list of movies in the optimal sequence.
+     * @throws IllegalArgumentException if the graph contains an arc to a movie with a lower or equal index.
+     */
+    public List<Movie> findPathAllStartingNodes(boolean shortestPath) {
+        return findPathAllStartingNodes(shortestPath, 0);
+    }
+
+    /**
+     * Finds the optimal movie sequence over all starting points from a given index onwards, in a single backward pass.
+     * The graph must contain the arcs of every movie from that index onwards, as a graph built by the
+     * DirectedGraphInitialiser from the movie at that index does. Movies before it are not considered as a start.
+     * 
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @param firstStartIndex The index of the first movie from which the arcs of the graph were built.
+     * @return The list of movies in the optimal sequence.
+     * @throws IllegalArgumentException if the index is not in the graph, or if the graph contains an arc
+     *         to a movie with a lower or equal index.
+     */
+    public List<Movie> findPathAllStartingNodes(boolean shortestPath, int firstStartIndex) {
+        if (firstStartIndex < 0 || (firstStartIndex > 0 && firstStartIndex >= this.numberOfNodes)) {
+            throw new IllegalArgumentException("The first starting index must be in the graph.");
+        }
+        if (this.graph.getArcsStart(firstStartIndex) != 0) {
+            throw new IllegalArgumentException("The graph must not contain arcs of movies before the first starting index.");
+        }
+
+        System.out.println("-----------------");
+        System.out.println("Finding the optimal movie sequence for all starting points in a single backward pass.");
+
+        double[] continuation = new double[this.numberOfNodes];  // Best score of the arcs after each movie
+        int[] nextNode = new int[this.numberOfNodes];
+        Arrays.fill(nextNode, -1);
+
+        int optimalStartIndex = -1;
+        double optimalScore = 0.0;
+
+        for (int i = this.numberOfNodes - 1; i >= firstStartIndex; i--) {
+            for (int arc = this.graph.getArcsStart(i); arc < this.graph.getArcsEnd(i); arc++) {
+                int j = this.graph.getArcTarget(arc);
+                if (j <= i) {
+                    throw new IllegalArgumentException("The graph must only contain arcs to movies with a higher index.");
+                }
+
+                double candidate = this.graph.getArcWeight(arc) + continuation[j];
+                if (shortestPath ? candidate < continuation[i] : candidate > continuation[i]) {
+                    continuation[i] = candidate;
+                    nextNode[i] = j;
+                }
+            }
+
+            // Ties are resolved towards the lowest index, as the loop runs backwards
+            double score = this.graph.getNode(i).getRating() + continuation[i];
+            if (optimalStartIndex == -1 || (shortestPath ? score <= optimalScore : score >= optimalScore)) {
+                optimalStartIndex = i;
+                optimalScore = score;
+            }
+        }
+
+        List<Movie> optimalSequence = new ArrayList<>();
+        if (optimalStartIndex == -1) {
+            return optimalSequence;  // Empty graph
+        }
+        for (int index = optimalStartIndex; index != -1; index = nextNode[index]) {
+            optimalSequence.add(this.graph.getNode(index));
+        }
+
+        // Set the optimal starting node for further usage
+        this.startNode = this.graph.getNode(optimalStartIndex);
+        this.indexStartNode = optimalStartIndex;
+
+        System.out.println("-----------------");
+        System.out.println("The optimal starting movie is: " + this.startNode);
+        System.out.println("The optimal score is: " + optimalScore);
+        System.out.println("-> The optimal sequence is: " + optimalSequence);
+
+        return optimalSequence;
+    }
+
+    /**
+     * Evaluates the paths for all starting nodes in the graph with a single solver, whose arrays are reused for every
+     * starting node. Only the best score is kept; ties are resolved towards the lowest index.
      * 
+     * @param pathSolver The solver to search the paths with.
      * @param shortestPath If true, evaluates paths for the shortest path; otherwise, evaluates the longest path.
-     * @param timeLimit If true, applies a time constraint for the maximum duration.
-     * @param movieScores A map to store the score (min or max path value) for each starting movie.
-     * @param movieSequences A map to store the corresponding path sequence for each starting movie.
-     */
-    private void evaluateAllStartingNodes(
-            boolean shortestPath, boolean timeLimit,
-            HashMap<Movie, Double> movieScores,
-            HashMap<Movie, List<Movie>> movieSequences
-        ) {
-        for (Movie movie : this.graph.nodes) {
+     * @param maxDuration The maximum total duration of a path.
+     * @return The index of the starting node with the best score (min for shortest path, max for longest path).
+     */
+    private int evaluateAllStartingNodes(PrimitivePathSolver pathSolver, boolean shortestPath, int maxDuration) {
+        int optimalStartIndex = -1;
+        double optimalScore = 0.0;
+
+        for (int i = 0; i < this.numberOfNodes; i++) {
             // Log progress for every 100th movie
-            if (this.graph.nodes.indexOf(movie)%100 == 0) {
-                System.out.println("---> Checking path for index: " + this.graph.nodes.indexOf(movie) + ", Movie: " + movie);
+            if (i%100 == 0) {
+                System.out.println("---> Checking path for index: " + i + ", Movie: " + this.graph.getNode(i));
             }
 
-            setStartNode(movie);  // Reset starting node to the current movie
-            Double[] path = findPaths(shortestPath, timeLimit);  // Find the path for the current node
-
-            movieSequences.put(movie, new ArrayList<>(this.previousNode));  // Store sequence
-            
-            // Store the score (min or max path value) for the current movie
-            if (shortestPath) {
-                movieScores.put(movie, findMinValue(path));
-            } else {
-                movieScores.put(movie, findMaxValue(path));
+            double score = pathSolver.solve(i, shortestPath, maxDuration);
+            if (optimalStartIndex == -1 || (shortestPath ? score < optimalScore : score > optimalScore)) {
+                optimalStartIndex = i;
+                optimalScore = score;
             }
         }
+        return optimalStartIndex;
+    }
+
+    /**
+     * Sets the starting node and the previous nodes of the Optimiser to the optimal path of the last search of a
+     * solver, such that getOptimalMovieSequence returns that sequence. Only the previous nodes on the optimal path
+     * are set, so the sequence ends at the last movie of the optimal path.
+     * 
+     * @param pathSolver The solver that searched from the starting node last.
+     * @param startIndex The index of the starting node.
+     */
+    private void applySolution(PrimitivePathSolver pathSolver, int startIndex) {
+        this.startNode = this.graph.getNode(startIndex);
+        this.indexStartNode = startIndex;
+
+        initialiseSequencialNodes();
+        for (int i = pathSolver.getOptimalEndIndex(); pathSolver.getPreviousNode(i) != -1; i = pathSolver.getPreviousNode(i)) {
+            this.previousNode.set(i, this.graph.getNode(pathSolver.getPreviousNode(i)));
+        }
+    }
+
+    /**
+     * Gives the primitive solver for the graph of this Optimiser. The solver is created on the first call and reused
+     * afterwards, so its arrays are only allocated once.
+     * 
+     * @return The primitive solver of this Optimiser.
+     */
+    public PrimitivePathSolver getSolver() {
+        if (this.solver == null) {
+            this.solver = new PrimitivePathSolver(this.graph);
+        }
+        return this.solver;
+    }
+
+    /**
+     * Finds the optimal movie sequence over all possible starting points, evaluating the starting points in parallel.
+     * The starting points are divided over the given number of worker threads, where every thread searches with its own
+     * copy of the solver, so no fields of the Optimiser are shared between searches. The results are reduced to the best score,
+     * where ties are resolved towards the lowest index, such that the outcome does not depend on the scheduling.
+     * 
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @param timeLimit If true, applies a time constraint for the maximum duration.
+     * @param parallelism The number of worker threads to use.
+     * @return The list of movies in the optimal sequence.
+     */
+    public List<Movie> findPathDisregardStartingIndexParallel(boolean shortestPath, boolean timeLimit, int parallelism) {
+        System.out.println("-----------------");
+        System.out.println("Finding the optimal movie sequence disregarding the starting index, using " + parallelism + " threads.");
+
+        List<Movie> optimalSequence = new ArrayList<>();
+        if (this.numberOfNodes == 0) {
+            return optimalSequence;
+        }
+
+        PrimitivePathSolver pathSolver = getSolver();
+        ThreadLocal<PrimitivePathSolver> threadSolvers = ThreadLocal.withInitial(() -> new PrimitivePathSolver(pathSolver));
+        int maxDuration = timeLimit ? MAX_DURATION : Integer.MAX_VALUE;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        StartingNodeResult optimalResult;
+        try {
+            optimalResult = pool.invoke(new StartingNodeTask(threadSolvers, 0, this.numberOfNodes, shortestPath, maxDuration));
+        } finally {
+            pool.shutdown();
+        }
+
+        // Search once more from the optimal starting node to recover its sequence
+        pathSolver.solve(optimalResult.index, shortestPath, maxDuration);
+        applySolution(pathSolver, optimalResult.index);
+
+        logOptimalPathResult(this.startNode, optimalResult.score);
+
+        return getOptimalMovieSequence();
+    }
+
+    /**
+     * Finds the provably optimal movie sequence from the starting node that fits within a time budget.
+     * The time spent on a sequence is the time from the start of the first movie to the end of the last movie.
+     * As this only depends on the first and the last movie, the time spent when arriving at a movie is the same
+     * for every path to it, so a single label per movie suffices: the best path value. Unlike findPath, only
+     * movies that are actually reachable from the starting node are considered.
+     * 
+     * @param budget The maximum time spent in minutes.
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @return The list of movies in the optimal sequence, or an empty list if the starting movie does not fit the budget.
+     */
+    public List<Movie> findPathWithinBudget(int budget, boolean shortestPath) {
+        System.out.println("-----------------");
+        System.out.println("Optimising movie schedule within a budget of " + budget + " minutes...");
+
+        PrimitivePathSolver pathSolver = getSolver();
+        int endIndex = pathSolver.solveWithinBudget(this.indexStartNode, shortestPath, budget);
+
+        List<Movie> optimalSequence = new ArrayList<>();
+        for (int index = endIndex; index != -1; index = pathSolver.getPreviousNode(index)) {
+            optimalSequence.add(this.graph.getNode(index));
+        }
+        Collections.reverse(optimalSequence);
+
+        if (endIndex == -1) {
+            System.out.println("-> The starting movie does not fit within the budget.");
+        } else {
+            System.out.println("-> The optimal score is: " + pathSolver.getPathValue(endIndex) + ", ending at index: " + endIndex);
+            System.out.println("-> The optimal sequence is: " + optimalSequence);
+        }
+        return optimalSequence;
+    }
+
+    /**
+     * Finds the provably optimal sequence of rows of a table from a starting row that fits within a time budget,
+     * in the same way as findPathWithinBudget. The search reads the columns of the table directly, so no Movie objects
+     * are needed.
+     * 
+     * @param table The table of movies.
+     * @param graph The compressed graph of the rows of the table, as built by DirectedGraphInitialiser.initialiseCompressedGraph.
+     * @param startRow The index of the starting row.
+     * @param budget The maximum time spent in minutes.
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @return The indices of the rows in the optimal sequence, or an empty array if the starting movie does not fit within the budget.
+     */
+    public static int[] findPathWithinBudget(MovieTable table, CompressedDirectedGraph<Integer> graph, int startRow, int budget, boolean shortestPath) {
+        System.out.println("-----------------");
+        System.out.println("Optimising movie schedule within a budget of " + budget + " minutes...");
+
+        PrimitivePathSolver pathSolver = new PrimitivePathSolver(graph, table);
+        int endIndex = pathSolver.solveWithinBudget(startRow, shortestPath, budget);
+        if (endIndex == -1) {
+            System.out.println("-> The starting movie does not fit within the budget.");
+            return new int[0];
+        }
+
+        int[] buffer = new int[pathSolver.getNumberOfNodes()];
+        int[] optimalSequence = Arrays.copyOf(buffer, pathSolver.copySequence(endIndex, buffer));
+        System.out.println("-> The optimal score is: " + pathSolver.getPathValue(endIndex) + ", ending at index: " + endIndex);
+        System.out.println("-> The optimal sequence is: " + Arrays.toString(optimalSequence));
+        return optimalSequence;
     }
 
     /**
-     * Returns the movie node with the optimal score (min for shortest path, max for longest path).
+     * Finds the K best movie sequences from the starting node, in order of decreasing total rating.
+     * The sequences are enumerated lazily by a KBestScheduleIterator, so asking for K sequences costs far less
+     * than K separate optimisations.
      * 
-     * @param movieScores A map containing the scores for each starting movie.
-     * @return The movie node with the best score.
+     * @param k The number of sequences to find.
+     * @return The K best sequences, or fewer if there are fewer sequences from the starting node.
      */
-    private Movie getOptimalStartingMovie(HashMap<Movie, Double> movieScores) {
-        return Collections.max(movieScores.entrySet(), (entry1, entry2) -> entry1.getValue().compareTo(entry2.getValue())).getKey();
+    public List<List<Movie>> findKBestSequences(int k) {
+        System.out.println("-----------------");
+        System.out.println("Finding the " + k + " best movie sequences...");
+
+        List<List<Movie>> sequences = new ArrayList<>();
+        KBestScheduleIterator iterator = new KBestScheduleIterator(this.graph, this.startNode, k);
+        while (iterator.hasNext()) {
+            sequences.add(iterator.next());
+        }
+
+        System.out.println("-> Found " + sequences.size() + " sequences, the last with a score of: " + iterator.getLastRating());
+        return sequences;
+    }
+
+    /**
+     * Builds the frontier of non-dominated schedules from the starting node, trading the total rating against the end time.
+     * The longest path to every reachable movie is computed in a single forward pass over the start time sorted graph.
+     * Since the end time of a schedule is the end time of its last movie, every movie gives one candidate point; sorting
+     * these by end time and keeping only the points that improve the total rating gives the frontier. Afterwards,
+     * the best schedule for any time budget can be looked up in O(log k), where k is the size of the frontier.
+     * 
+     * @return The frontier of non-dominated schedules from the starting node.
+     */
+    public ScheduleFrontier buildScheduleFrontier() {
+        PrimitivePathSolver pathSolver = getSolver();
+        pathSolver.solveWithinBudget(this.indexStartNode, false, Integer.MAX_VALUE);
+
+        // Sort the reached movies by end time, packing the end time (at most 32 bits) and the index (31 bits) into a single key
+        long[] candidates = new long[this.numberOfNodes - this.indexStartNode];
+        int numberOfCandidates = 0;
+        for (int i = this.indexStartNode; i < this.numberOfNodes; i++) {
+            if (pathSolver.isReached(i)) {
+                Movie movie = this.graph.getNode(i);
+                candidates[numberOfCandidates++] = (movie.getEndTime() << 31) | i;
+            }
+        }
+        Arrays.sort(candidates, 0, numberOfCandidates);
+
+        long[] endTimes = new long[numberOfCandidates];
+        double[] ratings = new double[numberOfCandidates];
+        int[] lastNodes = new int[numberOfCandidates];
+        int size = 0;
+        for (int c = 0; c < numberOfCandidates; c++) {
+            long endTime = candidates[c] >>> 31;
+            int index = (int) (candidates[c] & Integer.MAX_VALUE);
+            double rating = pathSolver.getPathValue(index);
+
+            if (size > 0 && rating <= ratings[size - 1]) {
+                continue;  // Dominated by a schedule that ends earlier or at the same time
+            }
+            if (size > 0 && endTime == endTimes[size - 1]) {
+                size--;  // Replaces a schedule with the same end time and a lower rating
+            }
+            endTimes[size] = endTime;
+            ratings[size] = rating;
+            lastNodes[size] = index;
+            size++;
+        }
+
+        int[] previousNodes = new int[this.numberOfNodes];
+        for (int i = 0; i < this.numberOfNodes; i++) {
+            previousNodes[i] = i < this.indexStartNode ? -1 : pathSolver.getPreviousNode(i);
+        }
+
+        return new ScheduleFrontier(this.startNode, this.graph.getNodes(), Arrays.copyOf(endTimes, size),
+            Arrays.copyOf(ratings, size), Arrays.copyOf(lastNodes, size), previousNodes);
     }
 
     /**
      * Logs the results of the optimal path calculation, displaying the starting movie, sequence, and score.
      * 
      * @param optimalStartingMovie The movie node that was determined to be the best starting point.
-     * @param optimalSequence The sequence of movies representing the optimal path.
-     * @param movieScores A map containing the scores for each starting movie.
+     * @param optimalScore The score of the optimal starting movie.
      */
-    private void logOptimalPathResult(Movie optimalStartingMovie, List<Movie> optimalSequence, HashMap<Movie, Double> movieScores) {
+    private void logOptimalPathResult(Movie optimalStartingMovie, double optimalScore) {
         System.out.println("-----------------");
         System.out.println("The optimal starting movie is: " + optimalStartingMovie);
-        //System.out.println("The optimal sequence of previous nodes is: " + optimalSequence);
-        System.out.println("The optimal score is: " + movieScores.get(optimalStartingMovie));
+        System.out.println("The optimal score is: " + optimalScore);
     }
 
     /**
@@ -350,7 +654,7 @@ public class Optimiser {
             return optimalSequence;  // No valid sequence found
         }
 
-        System.out.println("-> First value found at index: " + index + ", Movie: " + this.graph.getNodes().get(index));
+        System.out.println("-> First value found at index: " + index + ", Movie: " + this.graph.getNode(index));
 
         buildSequenceFromIndex(sequence, optimalSequence, index);
 
@@ -382,9 +686,9 @@ public class Optimiser {
     private void buildSequenceFromIndex(List<Movie> sequence, List<Movie> optimalSequence, int startIndex) {
         int index = startIndex;
         while (index >= 0 && sequence.get(index) != null) { // Follow the path until null is reached or all nodes are visited
-            Movie currentNode = this.graph.getNodes().get(index);
+            Movie currentNode = this.graph.getNode(index);
             optimalSequence.add(currentNode);
-            index = this.graph.getNodes().indexOf(sequence.get(index));
+            index = this.graph.getIndex(sequence.get(index));
         }
     }
 
@@ -421,4 +725,69 @@ public class Optimiser {
         return maxValue;
     }
 
+    /**
+     * The score of the best starting node found by a StartingNodeTask.
+     */
+    private static class StartingNodeResult {
+        private final int index;
+        private final double score;
+
+        private StartingNodeResult(int index, double score) {
+            this.index = index;
+            this.score = score;
+        }
+
+        /**
+         * Returns the better of two results, preferring the lowest index when the scores are equal.
+         */
+        private StartingNodeResult better(StartingNodeResult other, boolean shortest) {
+            if (this.score == other.score) {
+                return this.index <= other.index ? this : other;
+            }
+            return (shortest ? this.score < other.score : this.score > other.score) ? this : other;
+        }
+    }
+
+    /**
+     * Evaluates a range of starting nodes, splitting the range in halves until it is small enough
+     * to be searched in one go. Every worker thread reuses its own copy of the solver for all of its ranges.
+     */
+    private static class StartingNodeTask extends RecursiveTask<StartingNodeResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ThreadLocal<PrimitivePathSolver> solvers;
+        private final int from;
+        private final int to;
+        private final boolean shortest;
+        private final int maxDuration;
+
+        private StartingNodeTask(ThreadLocal<PrimitivePathSolver> solvers, int from, int to, boolean shortest, int maxDuration) {
+            this.solvers = solvers;
+            this.from = from;
+            this.to = to;
+            this.shortest = shortest;
+            this.maxDuration = maxDuration;
+        }
+
+        @Override
+        protected StartingNodeResult compute() {
+            if (this.to - this.from <= PARALLEL_STARTS_PER_TASK) {
+                PrimitivePathSolver pathSolver = this.solvers.get();
+                StartingNodeResult best = null;
+                for (int i = this.from; i < this.to; i++) {
+                    double score = pathSolver.solve(i, this.shortest, this.maxDuration);
+                    StartingNodeResult result = new StartingNodeResult(i, score);
+                    best = best == null ? result : best.better(result, this.shortest);
+                }
+                return best;
+            }
+
+            int mid = this.from + (this.to - this.from) / 2;
+            StartingNodeTask left = new StartingNodeTask(this.solvers, this.from, mid, this.shortest, this.maxDuration);
+            StartingNodeTask right = new StartingNodeTask(this.solvers, mid, this.to, this.shortest, this.maxDuration);
+            left.fork();
+            StartingNodeResult rightResult = right.compute();
+            return left.join().better(rightResult, this.shortest);
+        }
+    }
 }
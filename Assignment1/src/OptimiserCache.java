@@ -0,0 +1,319 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The OptimiserCache class answers repeated "best schedule from movie X within N minutes" queries from a cache.
+ * The cache is bounded both by the number of entries and by their total size (the number of movies in the cached
+ * sequences), and evicts the least recently used entries first. Every entry keeps track of how often it was used.
+ *
+ * All entries are invalidated as soon as the underlying DirectedGraph changes, or when the cache is pointed to a
+ * rebuilt graph, so the cache never returns sequences for an outdated schedule.
+ *
+ * The cache is not thread-safe: even a lookup updates the usage statistics and the order of the entries,
+ * so concurrent use must be synchronised externally.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class OptimiserCache {
+    protected final int maxEntries;
+    protected final long maxSize;
+
+    protected DirectedGraph<Movie> graph;
+    protected CompressedDirectedGraph<Movie> compressedGraph;
+    protected PrimitivePathSolver solver;
+    protected long graphModificationCount;
+
+    protected final LinkedHashMap<QueryKey, CacheEntry> entries;
+    protected long totalSize = 0;
+
+    protected long hits = 0;
+    protected long misses = 0;
+    protected long evictions = 0;
+    protected long invalidations = 0;
+
+    /**
+     * Constructs a cache for queries on a graph of movies.
+     *
+     * @param graph The directed graph of movies.
+     * @param maxEntries The maximum number of cached queries.
+     * @param maxSize The maximum total number of movies in the cached sequences.
+     * @throws IllegalArgumentException if the maximum number of entries or the maximum size is not positive.
+     */
+    public OptimiserCache(DirectedGraph<Movie> graph, int maxEntries, long maxSize) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The maximum number of entries must be positive.");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);  // Access order: iterates from least to most recently used
+
+        setGraph(graph);
+    }
+
+    /**
+     * Points the cache to a rebuilt graph, invalidating all cached sequences.
+     *
+     * @param graph The new directed graph of movies.
+     */
+    public void setGraph(DirectedGraph<Movie> graph) {
+        this.graph = graph;
+        invalidate();
+    }
+
+    /**
+     * Removes all cached sequences and compresses the current graph again. A single solver is kept for the
+     * compressed graph, so computing the sequences of missed queries reuses the same arrays.
+     */
+    public void invalidate() {
+        this.entries.clear();
+        this.totalSize = 0;
+        this.invalidations++;
+
+        this.compressedGraph = CompressedDirectedGraph.fromGraph(this.graph);
+        this.solver = new PrimitivePathSolver(this.compressedGraph);
+        this.graphModificationCount = this.graph.getModificationCount();
+    }
+
+    /**
+     * Finds the optimal movie sequence from a starting movie within a time budget, using the cached sequence if the
+     * same query was answered before for the current graph.
+     *
+     * @param startingNode The starting movie.
+     * @param budget The maximum time spent in minutes.
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @return The (unmodifiable) list of movies in the optimal sequence.
+     */
+    public List<Movie> findPathWithinBudget(Movie startingNode, int budget, boolean shortestPath) {
+        if (this.graph.getModificationCount() != this.graphModificationCount) {
+            invalidate();  // The graph changed since the sequences were computed
+        }
+
+        QueryKey key = new QueryKey(startingNode, budget, shortestPath);
+        CacheEntry entry = this.entries.get(key);  // Moves the entry to the end of the access order
+        if (entry != null) {
+            this.hits++;
+            entry.hits++;
+            entry.lastAccessTime = System.nanoTime();
+            return entry.sequence;
+        }
+
+        this.misses++;
+        long start = System.nanoTime();
+        List<Movie> sequence = Collections.unmodifiableList(computeSequence(startingNode, budget, shortestPath));
+        entry = new CacheEntry(sequence, System.nanoTime() - start);
+
+        this.entries.put(key, entry);
+        this.totalSize += entry.getSize();
+        evictLeastRecentlyUsed();
+
+        return sequence;
+    }
+
+    /**
+     * Computes the optimal movie sequence from a starting movie within a time budget with the solver of the cache.
+     *
+     * @param startingNode The starting movie.
+     * @param budget The maximum time spent in minutes.
+     * @param shortestPath If true, finds the shortest path; otherwise, finds the longest path.
+     * @return The list of movies in the optimal sequence.
+     * @throws IllegalArgumentException if the starting movie is not in the graph.
+     */
+    private List<Movie> computeSequence(Movie startingNode, int budget, boolean shortestPath) {
+        int startIndex = this.compressedGraph.getIndex(startingNode);
+        if (startIndex == -1) {
+            throw new IllegalArgumentException("The starting node must be in the graph.");
+        }
+
+        List<Movie> sequence = new ArrayList<>();
+        int endIndex = this.solver.solveWithinBudget(startIndex, shortestPath, budget);
+        for (int index = endIndex; index != -1; index = this.solver.getPreviousNode(index)) {
+            sequence.add(this.compressedGraph.getNode(index));
+        }
+        Collections.reverse(sequence);
+        return sequence;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits its bounds again.
+     */
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<QueryKey, CacheEntry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext() && (this.entries.size() > this.maxEntries || this.totalSize > this.maxSize)) {
+            this.totalSize -= iterator.next().getValue().getSize();
+            iterator.remove();
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Gives the statistics of a cached query, without counting it as a hit. Like every lookup in the cache, it does
+     * mark the entry as the most recently used one.
+     *
+     * @param startingNode The starting movie.
+     * @param budget The maximum time spent in minutes.
+     * @param shortestPath If true, the query for the shortest path; otherwise, for the longest path.
+     * @return The cache entry of the query, or null if the query is not cached.
+     */
+    public CacheEntry getEntry(Movie startingNode, int budget, boolean shortestPath) {
+        return this.entries.get(new QueryKey(startingNode, budget, shortestPath));
+    }
+
+    /**
+     * Gives the number of cached queries.
+     *
+     * @return The number of entries in the cache.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gives the number of queries that were answered from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gives the number of queries that had to be computed.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gives the number of entries that were evicted to keep the cache within its bounds.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Gives the number of times the whole cache was invalidated, including the initial setup.
+     *
+     * @return The number of invalidations.
+     */
+    public long getInvalidations() {
+        return this.invalidations;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimiserCache [entries=" + size() + ", size=" + this.totalSize + ", hits=" + this.hits + ", misses="
+            + this.misses + ", evictions=" + this.evictions + ", invalidations=" + this.invalidations + "]";
+    }
+
+    /**
+     * A cached sequence together with its usage statistics.
+     */
+    public static class CacheEntry {
+        private final List<Movie> sequence;
+        private final long computationTime;
+        private long hits = 0;
+        private long lastAccessTime;
+
+        private CacheEntry(List<Movie> sequence, long computationTime) {
+            this.sequence = sequence;
+            this.computationTime = computationTime;
+            this.lastAccessTime = System.nanoTime();
+        }
+
+        /**
+         * Gives the cached sequence.
+         *
+         * @return The (unmodifiable) list of movies in the sequence.
+         */
+        public List<Movie> getSequence() {
+            return this.sequence;
+        }
+
+        /**
+         * Gives the size of the entry, used to bound the total size of the cache.
+         *
+         * @return The number of movies in the sequence, plus one for the entry itself.
+         */
+        public long getSize() {
+            return this.sequence.size() + 1;
+        }
+
+        /**
+         * Gives the number of times the entry was served from the cache.
+         *
+         * @return The number of hits of this entry.
+         */
+        public long getHits() {
+            return this.hits;
+        }
+
+        /**
+         * Gives the time it took to compute the sequence.
+         *
+         * @return The computation time in nanoseconds.
+         */
+        public long getComputationTime() {
+            return this.computationTime;
+        }
+
+        /**
+         * Gives the moment of the last use of the entry, as given by System.nanoTime().
+         *
+         * @return The time of the last access in nanoseconds.
+         */
+        public long getLastAccessTime() {
+            return this.lastAccessTime;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheEntry [size=" + getSize() + ", hits=" + this.hits + ", computationTime=" + this.computationTime + " ns]";
+        }
+    }
+
+    /**
+     * The key of a query: the starting movie, the budget and the objective.
+     */
+    private static class QueryKey {
+        private final Movie startingNode;
+        private final int budget;
+        private final boolean shortestPath;
+
+        private QueryKey(Movie startingNode, int budget, boolean shortestPath) {
+            this.startingNode = startingNode;
+            this.budget = budget;
+            this.shortestPath = shortestPath;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 17;
+            result = prime * result + ((startingNode == null) ? 0 : startingNode.hashCode());
+            result = prime * result + budget;
+            result = prime * result + (shortestPath ? 1231 : 1237);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            QueryKey other = (QueryKey) obj;
+            return this.budget == other.budget && this.shortestPath == other.shortestPath
+                && (this.startingNode == null ? other.startingNode == null : this.startingNode.equals(other.startingNode));
+        }
+    }
+}
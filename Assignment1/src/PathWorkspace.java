@@ -0,0 +1,72 @@
+import java.util.Arrays;
+
+/**
+ * The PathWorkspace class holds the scratch arrays of a single path search in the Optimiser.
+ * Every thread that searches paths uses its own workspace, so that searches from different
+ * starting nodes can run concurrently over the same (immutable) graph.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class PathWorkspace {
+    protected final double[] path;
+    protected final int[] previousNode;
+
+    /**
+     * Constructs a workspace for a graph with the given number of nodes.
+     *
+     * @param numberOfNodes The number of nodes in the graph.
+     */
+    public PathWorkspace(int numberOfNodes) {
+        this.path = new double[numberOfNodes];
+        this.previousNode = new int[numberOfNodes];
+    }
+
+    /**
+     * Clears the part of the workspace that is used by a search from the given starting node.
+     * Nodes before the starting node are never visited, so they are left untouched.
+     *
+     * @param startIndex The index of the starting node.
+     * @param startRating The rating of the starting movie.
+     * @param shortest If true, prepares for a shortest path search; otherwise, for a longest path search.
+     */
+    public void reset(int startIndex, double startRating, boolean shortest) {
+        int numberOfNodes = this.path.length;
+
+        Arrays.fill(this.path, startIndex, numberOfNodes, shortest ? Double.MAX_VALUE : Double.MIN_VALUE);
+        Arrays.fill(this.previousNode, startIndex, numberOfNodes, -1);
+
+        this.path[startIndex] = startRating;
+    }
+
+    /**
+     * Clears the part of the workspace that is used by a search from the given starting node, marking all other
+     * nodes as unreached. A node is reached by the search if and only if its path value is finite afterwards.
+     *
+     * @param startIndex The index of the starting node.
+     * @param startRating The rating of the starting movie.
+     * @param shortest If true, prepares for a shortest path search; otherwise, for a longest path search.
+     */
+    public void resetUnreached(int startIndex, double startRating, boolean shortest) {
+        reset(startIndex, startRating, shortest);
+        Arrays.fill(this.path, startIndex + 1, this.path.length, shortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Checks whether a node was reached by the last search that started with resetUnreached.
+     *
+     * @param index The index of the node.
+     * @return True if the node was reached, false otherwise.
+     */
+    public boolean isReached(int index) {
+        return !Double.isInfinite(this.path[index]);
+    }
+
+    /**
+     * Gives the size of the workspace.
+     *
+     * @return The number of nodes the workspace was created for.
+     */
+    public int getNumberOfNodes() {
+        return this.path.length;
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.Arrays;
+
+/**
+ * The PrimitivePathSolver class searches shortest or longest paths through a compressed graph of movies using only
+ * primitive arrays. The start times, durations and ratings of the movies are copied into arrays once (from the movies
+ * or from the columns of a MovieTable), so later changes to the movies or the table do not affect the solver. Every search
+ * reuses the same workspace, which is cleared rather than re-allocated. The results are read through index-based
+ * getters or copied into a buffer of the caller, so repeated searches (such as searching from every starting node)
+ * create no garbage.
+ *
+ * A solver is not thread-safe, but copies made with the copy constructor share the (immutable) graph and movie data
+ * and have their own workspace, so every thread can use its own copy.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class PrimitivePathSolver {
+    protected final CompressedDirectedGraph<?> graph;
+    protected final int numberOfNodes;
+
+    protected final int[] startTimes;
+    protected final int[] durations;
+    protected final double[] ratings;
+
+    protected final PathWorkspace workspace;
+    protected int optimalEndIndex = -1;
+
+    /**
+     * Constructs a solver for a compressed graph of movies.
+     *
+     * @param graph The compressed directed graph of movies.
+     */
+    public PrimitivePathSolver(CompressedDirectedGraph<Movie> graph) {
+        this.graph = graph;
+        this.numberOfNodes = graph.getNumberOfNodes();
+
+        this.startTimes = new int[this.numberOfNodes];
+        this.durations = new int[this.numberOfNodes];
+        this.ratings = new double[this.numberOfNodes];
+        for (int i = 0; i < this.numberOfNodes; i++) {
+            Movie movie = graph.getNode(i);
+            this.startTimes[i] = movie.getStartTime();
+            this.durations[i] = movie.getDuration();
+            this.ratings[i] = movie.getRating();
+        }
+
+        this.workspace = new PathWorkspace(this.numberOfNodes);
+    }
+
+    /**
+     * Constructs a solver for a compressed graph whose nodes are the rows of a table. The columns of the table are
+     * copied, as adding or swapping rows replaces or reorders them.
+     *
+     * @param graph The compressed directed graph of the rows of the table.
+     * @param table The table with the movie data of the nodes.
+     * @throws IllegalArgumentException if the graph and the table differ in size.
+     */
+    public PrimitivePathSolver(CompressedDirectedGraph<?> graph, MovieTable table) {
+        if (graph.getNumberOfNodes() != table.size()) {
+            throw new IllegalArgumentException("The graph must have a node for every row of the table.");
+        }
+        this.graph = graph;
+        this.numberOfNodes = graph.getNumberOfNodes();
+        this.startTimes = Arrays.copyOf(table.startTimes, this.numberOfNodes);
+        this.durations = Arrays.copyOf(table.durations, this.numberOfNodes);
+        this.ratings = Arrays.copyOf(table.ratings, this.numberOfNodes);
+
+        this.workspace = new PathWorkspace(this.numberOfNodes);
+    }
+
+    /**
+     * Constructs a solver that shares the graph and movie data of another solver, but has its own workspace.
+     *
+     * @param other The solver to share the graph and movie data with.
+     */
+    public PrimitivePathSolver(PrimitivePathSolver other) {
+        this.graph = other.graph;
+        this.numberOfNodes = other.numberOfNodes;
+        this.startTimes = other.startTimes;
+        this.durations = other.durations;
+        this.ratings = other.ratings;
+
+        this.workspace = new PathWorkspace(this.numberOfNodes);
+    }
+
+    /**
+     * Searches the shortest or longest paths from a starting node. Only movies that are reachable from the starting
+     * node are considered, and every arc of the graph is followed, as long as the movie it leads to ends within
+     * the maximum duration. The score is therefore the exact optimum over the sequences that start at the starting
+     * node, which is also what Optimiser.findPathAllStartingNodes computes for every start at once.
+     *
+     * @param startIndex The index of the starting node.
+     * @param shortest If true, finds the shortest paths; otherwise, finds the longest paths.
+     * @param maxDuration The maximum total duration of a path.
+     * @return The score of the starting node (min for shortest path, max for longest path).
+     */
+    public double solve(int startIndex, boolean shortest, int maxDuration) {
+        return this.workspace.path[search(startIndex, shortest, maxDuration)];
+    }
+
+    /**
+     * Searches the shortest or longest paths from a starting node that fit within a time budget. Only movies that are
+     * reachable from the starting node are considered, so the result is the exact optimum for the budget.
+     *
+     * @param startIndex The index of the starting node.
+     * @param shortest If true, finds the shortest paths; otherwise, finds the longest paths.
+     * @param budget The maximum time spent in minutes, from the start of the first movie to the end of the last movie.
+     * @return The index of the last movie of the optimal path, or -1 if the starting movie does not fit the budget.
+     */
+    public int solveWithinBudget(int startIndex, boolean shortest, int budget) {
+        if (this.durations[startIndex] > budget) {
+            return -1;
+        }
+        return search(startIndex, shortest, budget);
+    }
+
+    /**
+     * Searches the shortest or longest paths from a starting node over the movies that are reachable from it,
+     * following only arcs to movies that end within the budget. Ties are resolved towards the lowest index.
+     *
+     * @param startIndex The index of the starting node.
+     * @param shortest If true, finds the shortest paths; otherwise, finds the longest paths.
+     * @param budget The maximum time spent in minutes, from the start of the first movie to the end of the last movie.
+     * @return The index of the last movie of the optimal path.
+     */
+    private int search(int startIndex, boolean shortest, int budget) {
+        int startTime = this.startTimes[startIndex];
+        this.workspace.resetUnreached(startIndex, this.ratings[startIndex], shortest);
+
+        double[] path = this.workspace.path;
+        int optimalIndex = startIndex;
+        for (int i = startIndex; i < this.numberOfNodes; i++) {
+            if (!this.workspace.isReached(i)) {
+                continue;
+            }
+            if (shortest ? path[i] < path[optimalIndex] : path[i] > path[optimalIndex]) {
+                optimalIndex = i;
+            }
+
+            for (int arc = this.graph.getArcsStart(i); arc < this.graph.getArcsEnd(i); arc++) {
+                int j = this.graph.getArcTarget(arc);
+                if (j <= i || this.startTimes[j] + this.durations[j] - startTime > budget) {
+                    continue;  // Skip arcs backwards in the data or exceeding the budget
+                }
+
+                double candidate = path[i] + this.graph.getArcWeight(arc);
+                if (shortest ? candidate < path[j] : candidate > path[j]) {
+                    path[j] = candidate;
+                    this.workspace.previousNode[j] = i;
+                }
+            }
+        }
+        this.optimalEndIndex = optimalIndex;
+        return optimalIndex;
+    }
+
+    /**
+     * Gives the last movie of the optimal path of the last search.
+     *
+     * @return The index of the last movie of the optimal path.
+     */
+    public int getOptimalEndIndex() {
+        return this.optimalEndIndex;
+    }
+
+    /**
+     * Gives the path value of a node after the last search.
+     *
+     * @param index The index of the node.
+     * @return The path value of the node.
+     */
+    public double getPathValue(int index) {
+        return this.workspace.path[index];
+    }
+
+    /**
+     * Gives the previous node on the path to a node after the last search.
+     *
+     * @param index The index of the node.
+     * @return The index of the previous node, or -1 if the node has no previous node.
+     */
+    public int getPreviousNode(int index) {
+        return this.workspace.previousNode[index];
+    }
+
+    /**
+     * Checks whether a node was reached by the last search within a budget.
+     *
+     * @param index The index of the node.
+     * @return True if the node was reached, false otherwise.
+     */
+    public boolean isReached(int index) {
+        return this.workspace.isReached(index);
+    }
+
+    /**
+     * Copies the sequence of node indices that ends at the given node into a buffer, following the previous nodes
+     * of the last search back to the first node of the sequence.
+     *
+     * @param endIndex The index of the last node of the sequence.
+     * @param buffer The buffer to copy the sequence into, in order from the first to the last node.
+     * @return The length of the sequence.
+     * @throws IllegalArgumentException if the sequence does not fit in the buffer.
+     */
+    public int copySequence(int endIndex, int[] buffer) {
+        int length = 0;
+        for (int index = endIndex; index != -1; index = this.workspace.previousNode[index]) {
+            length++;
+        }
+        if (length > buffer.length) {
+            throw new IllegalArgumentException("The buffer is too small for a sequence of length " + length + ".");
+        }
+
+        int position = length;
+        for (int index = endIndex; index != -1; index = this.workspace.previousNode[index]) {
+            buffer[--position] = index;
+        }
+        return length;
+    }
+
+    /**
+     * Gives the number of nodes in the graph of the solver, which is also the maximum length of a sequence.
+     *
+     * @return The number of nodes.
+     */
+    public int getNumberOfNodes() {
+        return this.numberOfNodes;
+    }
+}
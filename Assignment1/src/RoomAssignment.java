@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The RoomAssignment class holds the result of assigning movies to cinema rooms: the room of every movie
+ * and, for every room, the movies shown in it in order of start time.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class RoomAssignment {
+    protected final int[] rooms;
+    protected final List<List<Movie>> timelines;
+
+    /**
+     * Constructs a room assignment.
+     *
+     * @param rooms The room of every movie, in the order of the scheduled list of movies.
+     * @param timelines The movies shown in every room, in order of start time.
+     */
+    public RoomAssignment(int[] rooms, List<List<Movie>> timelines) {
+        this.rooms = rooms;
+        this.timelines = timelines;
+    }
+
+    /**
+     * Gives the number of rooms used by the assignment.
+     *
+     * @return The number of rooms.
+     */
+    public int getNumberOfRooms() {
+        return this.timelines.size();
+    }
+
+    /**
+     * Gives the room of a movie.
+     *
+     * @param movieIndex The index of the movie in the scheduled list of movies.
+     * @return The index of the room the movie is shown in.
+     */
+    public int getRoom(int movieIndex) {
+        return this.rooms[movieIndex];
+    }
+
+    /**
+     * Gives the movies shown in a room.
+     *
+     * @param room The index of the room.
+     * @return The (unmodifiable) list of movies shown in the room, in order of start time.
+     */
+    public List<Movie> getTimeline(int room) {
+        return Collections.unmodifiableList(this.timelines.get(room));
+    }
+
+    /**
+     * Gives the movies shown in every room.
+     *
+     * @return A list with, for every room, the movies shown in it in order of start time.
+     */
+    public List<List<Movie>> getTimelines() {
+        List<List<Movie>> result = new ArrayList<>();
+        for (int room = 0; room < getNumberOfRooms(); room++) {
+            result.add(getTimeline(room));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomAssignment [rooms=" + getNumberOfRooms() + ", movies=" + this.rooms.length + "]";
+    }
+}
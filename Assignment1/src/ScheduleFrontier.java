@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ScheduleFrontier class holds all non-dominated movie schedules from a starting movie, trading the total rating
+ * of a schedule against the time at which it ends. A schedule is non-dominated if every schedule with a higher total
+ * rating ends later. The schedules are stored in order of end time, so both the end times and the total ratings are
+ * strictly increasing, and the best schedule within any time budget is found with a binary search.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class ScheduleFrontier {
+    protected final Movie startNode;
+    protected final List<Movie> nodes;
+
+    protected final long[] endTimes;
+    protected final double[] ratings;
+    protected final int[] lastNodes;
+    protected final int[] previousNode;
+
+    /**
+     * Constructs a frontier from its points, in order of increasing end time.
+     *
+     * @param startNode The starting movie of all schedules.
+     * @param nodes The movies in the graph, in index order.
+     * @param endTimes The end time of the schedule of every point.
+     * @param ratings The total rating of the schedule of every point.
+     * @param lastNodes The index of the last movie of the schedule of every point.
+     * @param previousNode The index of the previous movie in the schedules for every movie, or -1 for the starting movie.
+     */
+    public ScheduleFrontier(Movie startNode, List<Movie> nodes, long[] endTimes, double[] ratings, int[] lastNodes, int[] previousNode) {
+        this.startNode = startNode;
+        this.nodes = nodes;
+        this.endTimes = endTimes;
+        this.ratings = ratings;
+        this.lastNodes = lastNodes;
+        this.previousNode = previousNode;
+    }
+
+    /**
+     * Gives the number of non-dominated schedules.
+     *
+     * @return The number of points on the frontier.
+     */
+    public int size() {
+        return this.endTimes.length;
+    }
+
+    /**
+     * Gives the end time of a point on the frontier.
+     *
+     * @param point The position of the point on the frontier.
+     * @return The time in minutes at which the schedule ends.
+     */
+    public long getEndTime(int point) {
+        return this.endTimes[point];
+    }
+
+    /**
+     * Gives the total rating of a point on the frontier.
+     *
+     * @param point The position of the point on the frontier.
+     * @return The total rating of the schedule.
+     */
+    public double getRating(int point) {
+        return this.ratings[point];
+    }
+
+    /**
+     * Gives the schedule of a point on the frontier.
+     *
+     * @param point The position of the point on the frontier.
+     * @return The movies in the schedule, starting with the starting movie.
+     */
+    public List<Movie> getSchedule(int point) {
+        List<Movie> schedule = new ArrayList<>();
+        for (int index = this.lastNodes[point]; index != -1; index = this.previousNode[index]) {
+            schedule.add(this.nodes.get(index));
+        }
+        Collections.reverse(schedule);
+        return schedule;
+    }
+
+    /**
+     * Finds the point with the highest total rating that fits within a time budget, with a binary search.
+     * The time spent runs from the start of the starting movie to the end of the last movie.
+     *
+     * @param budget The maximum time spent in minutes.
+     * @return The position of the point on the frontier, or -1 if no schedule fits within the budget.
+     */
+    public int findPointWithin(int budget) {
+        long latestEndTime = (long) this.startNode.getStartTime() + budget;
+
+        int low = 0;
+        int high = this.endTimes.length - 1;
+        int resultIndex = -1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            if (this.endTimes[mid] <= latestEndTime) {
+                resultIndex = mid; // Save the index and continue searching to the right for a later point
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return resultIndex;
+    }
+
+    /**
+     * Gives the highest total rating of a schedule that fits within a time budget.
+     *
+     * @param budget The maximum time spent in minutes.
+     * @return The highest total rating, or 0.0 if no schedule fits within the budget.
+     */
+    public double getBestRatingWithin(int budget) {
+        int point = findPointWithin(budget);
+        return point == -1 ? 0.0 : this.ratings[point];
+    }
+
+    /**
+     * Gives the schedule with the highest total rating that fits within a time budget.
+     *
+     * @param budget The maximum time spent in minutes.
+     * @return The movies in the schedule, or an empty list if no schedule fits within the budget.
+     */
+    public List<Movie> getBestScheduleWithin(int budget) {
+        int point = findPointWithin(budget);
+        return point == -1 ? new ArrayList<>() : getSchedule(point);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ScheduleFrontier [start=" + this.startNode + ", points=");
+        for (int point = 0; point < size(); point++) {
+            builder.append(point == 0 ? "" : ", ").append("(").append(this.ratings[point]).append(", ").append(this.endTimes[point]).append(")");
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
  * The class supports:
  * - Finding an exact matching movie.
  * - Finding the first or last matching movie based on the movie title.
+ * - Both of the above on the rows of a MovieTable, reading the columns directly.
  * 
  * @author 611968bq - Berend Quist
  */
@@ -58,11 +59,11 @@ public class Searcher {
      */
     private int binarySearchFindFirst(List<Movie> data, int low, int high, Movie key) {
         int resultIndex = -1;
-        String keyTitle = key.getTitle().toLowerCase();
+        String keyTitle = key.getLowercaseTitle();
 
         while (low <= high) {
             int mid = low + (high - low) / 2;
-            String title = data.get(mid).getTitle().toLowerCase();
+            String title = data.get(mid).getLowercaseTitle();
 
             if (title.startsWith(keyTitle)) {
                 resultIndex = mid; // Save the index and continue searching to the left for the first match
@@ -88,11 +89,11 @@ public class Searcher {
      */
     private int binarySearchFindLast(List<Movie> data, int low, int high, Movie key) {
         int resultIndex = -1;
-        String keyTitle = key.getTitle().toLowerCase();
+        String keyTitle = key.getLowercaseTitle();
 
         while (low <= high) {
             int mid = low + (high - low) / 2;
-            String title = data.get(mid).getTitle().toLowerCase();
+            String title = data.get(mid).getLowercaseTitle();
 
             if (title.startsWith(keyTitle)) {
                 resultIndex = mid; // Save the index and continue searching to the right for the last match
@@ -161,6 +162,102 @@ public class Searcher {
         return resultIndex;
     }
 
+    /**
+     * Finds a row in a table by performing an exact match search. The rows are compared to the key in the same order
+     * as Movie.compareTo, reading the columns of the table directly.
+     *
+     * @param table The table to search, sorted in the order of Movie.compareTo.
+     * @param key The movie to search for (exact match).
+     * @return The index of the row if found, or -1 if not found.
+     */
+    public int findMovie(MovieTable table, Movie key) {
+        logStartSearch(key);
+        int low = 0;
+        int high = table.size() - 1;
+        int resultIndex = -1;
+
+        while (low <= high && resultIndex == -1) {
+            int mid = low + (high - low) / 2;
+            int result = compareRow(table, mid, key);
+
+            if (result == 0) {
+                resultIndex = mid;
+            } else if (result < 0) {
+                low = mid + 1; // Search the right side
+            } else {
+                high = mid - 1; // Search the left side
+            }
+        }
+
+        logSearchResult(resultIndex, resultIndex == -1 ? key : table.getMovie(resultIndex));
+        return resultIndex;
+    }
+
+    /**
+     * Finds a row in a table based on an exact match or partial match, in the same way as findMovie on a list.
+     *
+     * @param table The table to search.
+     * @param exactMatch If true, searches for an exact match.
+     * @param firstMatch If true, finds the first matching row. If false, finds the last matching row.
+     * @param title The title of the movie to search for (can be partial).
+     * @param rating The rating of the movie (optional).
+     * @param duration The duration of the movie (optional).
+     * @param startTime The start time of the movie (optional).
+     * @return The index of the row if found, or -1 if not found.
+     */
+    public int findMovie(MovieTable table, boolean exactMatch, boolean firstMatch, String title, Double rating, Integer duration, Integer startTime) {
+        Movie partialMovie = Movie.createPartialMovie(title, rating, duration, startTime);
+        if (exactMatch) {
+            return findMovie(table, partialMovie); // Perform exact match search
+        }
+
+        logStartSearch(partialMovie);
+        String keyTitle = partialMovie.getLowercaseTitle();
+        int low = 0;
+        int high = table.size() - 1;
+        int resultIndex = -1;
+
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            String rowTitle = table.getLowercaseTitle(mid);
+
+            if (rowTitle.startsWith(keyTitle)) {
+                resultIndex = mid; // Save the index and continue searching for the first or last match
+                if (firstMatch) {
+                    high = mid - 1;
+                } else {
+                    low = mid + 1;
+                }
+            } else if (rowTitle.compareTo(keyTitle) < 0) {
+                low = mid + 1; // Move right
+            } else {
+                high = mid - 1; // Move left
+            }
+        }
+
+        logSearchResult(resultIndex, resultIndex == -1 ? partialMovie : table.getMovie(resultIndex));
+        return resultIndex;
+    }
+
+    /**
+     * Compares a row of a table to a movie based on the title (first character), rating, duration, and start time,
+     * in the same way as Movie.compareTo.
+     *
+     * @param table The table.
+     * @param row The index of the row.
+     * @param key The movie to compare to.
+     * @return A negative integer, zero, or a positive integer as the row is less than, equal to, or greater than the movie.
+     */
+    private int compareRow(MovieTable table, int row, Movie key) {
+        int result = Integer.compare(table.getTitleKey(row), key.getTitleKey());
+
+        if (result == 0) result = Double.compare(table.getRating(row), key.getRating());
+        if (result == 0) result = Integer.compare(table.getDuration(row), key.getDuration());
+        if (result == 0) result = Integer.compare(table.getStartTime(row), key.getStartTime());
+
+        return result;
+    }
+
     /**
      * Logs the start of the search operation.
      * 
@@ -1,20 +1,84 @@
-import java.util.List;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * The Sorter class provides methods to sort a list of Movie objects using a custom comparator.
- * It includes methods to check if the data is already sorted and implements the QuickSort algorithm
- * to sort the data if necessary.
+ * It includes methods to check if the data is already sorted and implements the QuickSort and IntroSort algorithms
+ * to sort the data if necessary. The same methods are available for the rows of a MovieTable, where rows are
+ * compared with a row comparator and swapped column by column.
+ * 
+ * sortData uses IntroSort: a QuickSort with median-of-three (or ninther) pivots and three-way partitioning, which
+ * sorts small ranges with insertion sort and switches to heapsort when the recursion gets too deep. Sorted,
+ * reverse-sorted and duplicate-heavy data (such as many movies starting on the hour) are therefore sorted in
+ * O(n log n) time in the worst case, with a recursion depth of O(log n).
+ * 
+ * Movies can also be sorted by an int key, such as the start time or the duration, with sortDataByIntKey, and by
+ * title and rating with sortDataByTitleThenRating. These compute a key per movie once and sort the keys with a
+ * stable LSD radix sort in O(n + k) time per pass, where k is the number of buckets per pass, without any comparisons.
+ * 
+ * Large lists can be sorted on multiple cores with parallelSortData: a stable merge sort on the ForkJoin common pool.
+ * The movies are copied into an array once, ranges of at most the parallel threshold are sorted by separate tasks,
+ * the sorted ranges are merged in parallel, and the result is written back to the list once.
+ * 
+ * Instead of sorting a list in place, a Sorter can also give the order of a list as an index permutation or as a
+ * sorted view, with getSortedOrder and getSortedView. The list itself is not changed, and the order is cached per
+ * list and comparator, so stages that need different orders of the same list can share it. The orders by start time,
+ * duration and title then rating are computed with the radix sort on indices. The cache holds the lists by identity
+ * through weak references, so it does not keep a list alive, and it keeps a snapshot of every list: a view reads
+ * from the snapshot, and a cached order is only used while the list still holds the same movies in the same positions.
+ * Checking this compares the list with the snapshot, so every lookup in the cache takes O(n) time. This is still
+ * much cheaper than sorting again, but it is not free.
+ * 
+ * Because of the cache, a Sorter has state, even though sorting a list in place does not use it. The cache is not
+ * thread-safe, so a Sorter that is shared between threads must only be used for getSortedOrder, getSortedView,
+ * isOrderCached and clearSortedOrders by one thread at a time.
  * 
  * @author 611968bq - Berend Quist
  */
 public class Sorter {
+    private static final int INSERTION_SORT_THRESHOLD = 16;  // Ranges of at most 16 elements are sorted by insertion sort
+    private static final int NINTHER_THRESHOLD = 128;  // Ranges of more than 128 elements use the ninther as pivot
+    private static final int RADIX_BITS = 16;  // Every pass of the radix sort sorts on 16 bits of the key
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;  // Ranges of at most 8192 elements are sorted by a single task
+
+    protected final int parallelThreshold;
+    private final Map<ListKey, Map<Comparator<Movie>, SortedOrder>> sortedOrders = new HashMap<>();
+    private final ReferenceQueue<List<Movie>> collectedLists = new ReferenceQueue<>();
 
     /**
      * Constructor for the Sorter class.
      */
     public Sorter() {
-        // Default constructor
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor for the Sorter class with the size up to which the parallel sort sorts or merges a range in a
+     * single task.
+     * 
+     * @param parallelThreshold The largest range that is not split further by the parallel sort.
+     * @throws IllegalArgumentException if the threshold is smaller than 1.
+     */
+    public Sorter(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("The parallel threshold must be at least 1.");
+        }
+        this.parallelThreshold = parallelThreshold;
     }
 
     /**
@@ -31,7 +95,7 @@ public class Sorter {
         // Check if the data is already sorted before sorting to avoid unnecessary sorting.
         if (!isDataSorted(data, comparator)) {
             System.out.println("-> Data is not sorted. Sorting data...");
-            quickSort(data, 0, data.size() - 1, comparator);
+            introSort(data, 0, data.size() - 1, comparator);
         }
         System.out.println("Data sorted.");
     }
@@ -102,6 +166,906 @@ public class Sorter {
         return i + 1;  // Return the index of the pivot element
     }
 
+    /**
+     * Implements the IntroSort algorithm to sort the data using the provided comparator. The sort takes O(n log n)
+     * time in the worst case, also for sorted, reverse-sorted and duplicate-heavy data.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param from The starting index of the list.
+     * @param to The ending index of the list.
+     * @param comparator The comparator to define the sort order.
+     */
+    public void introSort(List<Movie> data, int from, int to, Comparator<Movie> comparator) {
+        if (from < to) {
+            introSort(data, from, to, comparator, 2 * floorLog2(to - from + 1));
+        }
+    }
+
+    /**
+     * Sorts a range with QuickSort until the range is small enough for insertion sort, or until the depth limit is
+     * reached, after which the range is sorted with heapsort. Only the smaller part of a partition is sorted
+     * recursively; the larger part is sorted in the loop, so the stack depth stays logarithmic.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param from The starting index of the range.
+     * @param to The ending index of the range.
+     * @param comparator The comparator to define the sort order.
+     * @param depthLimit The number of partitions left before switching to heapsort.
+     */
+    private void introSort(List<Movie> data, int from, int to, Comparator<Movie> comparator, int depthLimit) {
+        while (to - from >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(data, from, to, comparator);
+                return;
+            }
+
+            // Three-way partition around the pivot: [from, lt) < pivot, [lt, i) == pivot, (gt, to] > pivot
+            swap(data, from, choosePivot(data, from, to, comparator));
+            Movie pivot = data.get(from);
+            int lt = from;
+            int i = from + 1;
+            int gt = to;
+            while (i <= gt) {
+                int result = comparator.compare(data.get(i), pivot);
+                if (result < 0) {
+                    swap(data, lt++, i++);
+                } else if (result > 0) {
+                    swap(data, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // The elements equal to the pivot are in place; sort the smaller of the other parts first
+            if (lt - from < to - gt) {
+                introSort(data, from, lt - 1, comparator, depthLimit);
+                from = gt + 1;
+            } else {
+                introSort(data, gt + 1, to, comparator, depthLimit);
+                to = lt - 1;
+            }
+        }
+        insertionSort(data, from, to, comparator);
+    }
+
+    /**
+     * Chooses the pivot of a range: the median of the first, middle and last element, or for large ranges the
+     * median of three such medians (the ninther) of evenly spaced elements.
+     * 
+     * @param data The list of Movie objects.
+     * @param from The starting index of the range.
+     * @param to The ending index of the range.
+     * @param comparator The comparator to define the order of elements.
+     * @return The index of the pivot.
+     */
+    private int choosePivot(List<Movie> data, int from, int to, Comparator<Movie> comparator) {
+        int mid = from + (to - from) / 2;
+        if (to - from < NINTHER_THRESHOLD) {
+            return medianOfThree(data, from, mid, to, comparator);
+        }
+        int step = (to - from) / 8;
+        int first = medianOfThree(data, from, from + step, from + 2 * step, comparator);
+        int middle = medianOfThree(data, mid - step, mid, mid + step, comparator);
+        int last = medianOfThree(data, to - 2 * step, to - step, to, comparator);
+        return medianOfThree(data, first, middle, last, comparator);
+    }
+
+    /**
+     * Gives the index of the median of three elements.
+     * 
+     * @param data The list of Movie objects.
+     * @param a The index of the first element.
+     * @param b The index of the second element.
+     * @param c The index of the third element.
+     * @param comparator The comparator to define the order of elements.
+     * @return The index of the median element.
+     */
+    private int medianOfThree(List<Movie> data, int a, int b, int c, Comparator<Movie> comparator) {
+        Movie movieA = data.get(a);
+        Movie movieB = data.get(b);
+        Movie movieC = data.get(c);
+        if (comparator.compare(movieA, movieB) < 0) {
+            if (comparator.compare(movieB, movieC) < 0) return b;
+            return comparator.compare(movieA, movieC) < 0 ? c : a;
+        }
+        if (comparator.compare(movieA, movieC) < 0) return a;
+        return comparator.compare(movieB, movieC) < 0 ? c : b;
+    }
+
+    /**
+     * Sorts a small range with insertion sort, shifting larger elements to the right.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param from The starting index of the range.
+     * @param to The ending index of the range.
+     * @param comparator The comparator to define the sort order.
+     */
+    private void insertionSort(List<Movie> data, int from, int to, Comparator<Movie> comparator) {
+        for (int i = from + 1; i <= to; i++) {
+            Movie movie = data.get(i);
+            int j = i - 1;
+            while (j >= from && comparator.compare(data.get(j), movie) > 0) {
+                data.set(j + 1, data.get(j));
+                j--;
+            }
+            data.set(j + 1, movie);
+        }
+    }
+
+    /**
+     * Sorts a range with heapsort, which takes O(n log n) time for any input.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param from The starting index of the range.
+     * @param to The ending index of the range.
+     * @param comparator The comparator to define the sort order.
+     */
+    private void heapSort(List<Movie> data, int from, int to, Comparator<Movie> comparator) {
+        int size = to - from + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(data, from, i, size, comparator);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(data, from, from + end);
+            siftDown(data, from, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Moves an element of a max-heap down until both its children are smaller. The heap is stored in the range
+     * starting at index from, where the children of heap position i are at positions 2i + 1 and 2i + 2.
+     * 
+     * @param data The list of Movie objects.
+     * @param from The index of the root of the heap.
+     * @param i The heap position of the element.
+     * @param size The number of elements in the heap.
+     * @param comparator The comparator to define the order of elements.
+     */
+    private void siftDown(List<Movie> data, int from, int i, int size, Comparator<Movie> comparator) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && comparator.compare(data.get(from + child), data.get(from + child + 1)) < 0) {
+                child++;
+            }
+            if (comparator.compare(data.get(from + i), data.get(from + child)) >= 0) {
+                return;
+            }
+            swap(data, from + i, from + child);
+            i = child;
+        }
+    }
+
+    /**
+     * Sorts the data using the provided comparator with the parallel merge sort if the data is not already sorted.
+     * Movies that are equal according to the comparator keep their order.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param comparator The comparator to define the sort order.
+     * @param keyTitle A title to display for logging purposes.
+     */
+    public void parallelSortData(List<Movie> data, Comparator<Movie> comparator, String keyTitle) {
+        System.out.println("-----------------");
+        System.out.println("Start sorting data: " + keyTitle);
+
+        // Check if the data is already sorted before sorting to avoid unnecessary sorting.
+        if (!isDataSorted(data, comparator)) {
+            System.out.println("-> Data is not sorted. Sorting data on " + ForkJoinPool.getCommonPoolParallelism() + " threads...");
+            parallelSort(data, comparator);
+        }
+        System.out.println("Data sorted.");
+    }
+
+    /**
+     * Sorts the data with a stable merge sort on the ForkJoin common pool. The movies are copied into an array, which
+     * is split in halves until the ranges have at most parallelThreshold elements; these ranges are sorted with
+     * Arrays.sort (which is stable) and merged in parallel through a buffer. The sorted movies are written back to the
+     * list once, so the list is never accessed by index.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param comparator The comparator to define the sort order.
+     */
+    public void parallelSort(List<Movie> data, Comparator<Movie> comparator) {
+        Movie[] movies = data.toArray(new Movie[0]);
+        if (movies.length <= this.parallelThreshold) {
+            Arrays.sort(movies, comparator);
+        } else {
+            Movie[] buffer = new Movie[movies.length];
+            ForkJoinPool.commonPool().invoke(new MergeSortTask(movies, buffer, 0, movies.length, comparator, this.parallelThreshold));
+        }
+
+        ListIterator<Movie> iterator = data.listIterator();
+        for (Movie movie : movies) {
+            iterator.next();
+            iterator.set(movie);
+        }
+    }
+
+    /**
+     * Gives a view of the data in the order of the provided comparator, computing the order if it is not cached yet.
+     * The data itself is not changed.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator to define the sort order.
+     * @param keyTitle A title to display for logging purposes.
+     * @return An unmodifiable view of the data in sorted order.
+     */
+    public List<Movie> getSortedView(List<Movie> data, Comparator<Movie> comparator, String keyTitle) {
+        System.out.println("-----------------");
+        System.out.println("Start sorting data: " + keyTitle);
+
+        if (isOrderCached(data, comparator)) {
+            System.out.println("-> Using the cached order.");
+        } else {
+            System.out.println("-> Order is not cached. Sorting an index permutation...");
+        }
+        List<Movie> view = getSortedView(data, comparator);
+        System.out.println("Data sorted.");
+        return view;
+    }
+
+    /**
+     * Gives a view of the data in the order of the provided comparator. The view reads from a snapshot of the data
+     * that was taken when the order was computed, so it takes O(1) time per movie and does not change when the
+     * data is changed afterwards.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator to define the sort order.
+     * @return An unmodifiable view of the data in sorted order.
+     */
+    public List<Movie> getSortedView(List<Movie> data, Comparator<Movie> comparator) {
+        SortedOrder sortedOrder = findSortedOrder(data, comparator);
+        return new SortedView(sortedOrder.movies, sortedOrder.order);
+    }
+
+    /**
+     * Gives the order of the data according to the provided comparator as an index permutation: the movie at
+     * position i of the sorted order is data.get(order[i]). Movies that are equal according to the comparator keep
+     * their order. On the first call for a list and comparator, the order is computed as follows:
+     * - If the data is already sorted, the order is the identity permutation.
+     * - For the orders by start time, by duration and by title and then rating of MovieComparators, the indices
+     *   are sorted on a precomputed key with the stable radix sort of sortByLongKey.
+     * - For any other comparator, the indices are sorted with a stable merge sort.
+     * Every following call takes the order from the cache, unless the data changed since it was computed. Checking
+     * whether the data changed compares it with the snapshot of the cached order, which takes O(n) time.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator to define the sort order.
+     * @return The index permutation, which is shared with the cache and must not be modified.
+     */
+    public int[] getSortedOrder(List<Movie> data, Comparator<Movie> comparator) {
+        return findSortedOrder(data, comparator).order;
+    }
+
+    /**
+     * Checks whether the order of the data according to the provided comparator is cached and still matches the data.
+     * The data is compared with the snapshot of the cached order, which takes O(n) time.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator that defines the order.
+     * @return true if the order is cached, false otherwise.
+     */
+    public boolean isOrderCached(List<Movie> data, Comparator<Movie> comparator) {
+        return getCachedOrder(data, comparator) != null;
+    }
+
+    /**
+     * Removes the cached orders of a list, for example when the list is no longer needed.
+     * 
+     * @param data The list of Movie objects.
+     */
+    public void clearSortedOrders(List<Movie> data) {
+        removeCollectedLists();
+        this.sortedOrders.remove(new ListKey(data, null));
+    }
+
+    /**
+     * Gives the cached order of the data according to a comparator, computing and caching it if it is not cached
+     * or if the data changed since it was cached.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator that defines the order.
+     * @return The sorted order of the data.
+     */
+    private SortedOrder findSortedOrder(List<Movie> data, Comparator<Movie> comparator) {
+        SortedOrder sortedOrder = getCachedOrder(data, comparator);
+        if (sortedOrder == null) {
+            sortedOrder = sortOrder(data, comparator);
+            this.sortedOrders.computeIfAbsent(new ListKey(data, this.collectedLists), key -> new IdentityHashMap<>())
+                .put(comparator, sortedOrder);
+        }
+        return sortedOrder;
+    }
+
+    /**
+     * Gives the cached order of the data according to a comparator, if it still matches the data.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator that defines the order.
+     * @return The sorted order of the data, or null if it is not cached or the data changed since it was cached.
+     */
+    private SortedOrder getCachedOrder(List<Movie> data, Comparator<Movie> comparator) {
+        removeCollectedLists();
+        Map<Comparator<Movie>, SortedOrder> orders = this.sortedOrders.get(new ListKey(data, null));
+        SortedOrder sortedOrder = orders == null ? null : orders.get(comparator);
+        return sortedOrder != null && sortedOrder.matches(data) ? sortedOrder : null;
+    }
+
+    /**
+     * Removes the cached orders of the lists that have been garbage collected.
+     */
+    private void removeCollectedLists() {
+        for (Reference<? extends List<Movie>> key = this.collectedLists.poll(); key != null; key = this.collectedLists.poll()) {
+            this.sortedOrders.remove(key);
+        }
+    }
+
+    /**
+     * Computes the order of the data according to a comparator, as described in getSortedOrder.
+     * 
+     * @param data The list of Movie objects.
+     * @param comparator The comparator that defines the order.
+     * @return The sorted order of the data, with a snapshot of the data.
+     */
+    private static SortedOrder sortOrder(List<Movie> data, Comparator<Movie> comparator) {
+        Movie[] movies = data.toArray(new Movie[0]);
+        if (isSorted(movies, comparator)) {
+            int[] order = new int[movies.length];
+            for (int i = 0; i < movies.length; i++) {
+                order[i] = i;
+            }
+            return new SortedOrder(movies, order);
+        }
+
+        ToLongFunction<Movie> keyExtractor = findKeyExtractor(movies, comparator);
+        if (keyExtractor == null) {
+            return new SortedOrder(movies, sortIndices(movies, comparator));
+        }
+        long[] keys = new long[movies.length];
+        for (int i = 0; i < movies.length; i++) {
+            keys[i] = keyExtractor.applyAsLong(movies[i]);
+        }
+        return new SortedOrder(movies, sortIndicesByLongKey(keys));
+    }
+
+    /**
+     * Checks whether an array of movies is sorted according to a comparator, without logging.
+     * 
+     * @param movies The movies.
+     * @param comparator The comparator that defines the order.
+     * @return true if the movies are sorted, false otherwise.
+     */
+    private static boolean isSorted(Movie[] movies, Comparator<Movie> comparator) {
+        for (int i = 0; i < movies.length - 1; i++) {
+            if (comparator.compare(movies[i], movies[i + 1]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gives a long key that orders movies in the same way as a comparator of MovieComparators, for the comparators
+     * whose order can be expressed as a single key.
+     * 
+     * @param movies The movies that will be sorted.
+     * @param comparator The comparator.
+     * @return The function that gives the key of a movie, or null if the comparator has no such key.
+     */
+    private static ToLongFunction<Movie> findKeyExtractor(Movie[] movies, Comparator<Movie> comparator) {
+        if (comparator == MovieComparators.byStartTime(true)) {
+            return Movie::getStartTime;
+        } else if (comparator == MovieComparators.byStartTime(false)) {
+            return movie -> -(long) movie.getStartTime();
+        } else if (comparator == MovieComparators.byDuration(true)) {
+            return Movie::getDuration;
+        } else if (comparator == MovieComparators.byDuration(false)) {
+            return movie -> -(long) movie.getDuration();
+        } else if (comparator == MovieComparators.byTitleThenRating(true)) {
+            return titleThenRatingKey(Arrays.asList(movies), true);
+        } else if (comparator == MovieComparators.byTitleThenRating(false)) {
+            return titleThenRatingKey(Arrays.asList(movies), false);
+        }
+        return null;
+    }
+
+    /**
+     * Sorts the indices of an array of movies with a stable merge sort, comparing the movies the indices refer to.
+     * 
+     * @param movies The movies.
+     * @param comparator The comparator to define the sort order.
+     * @return The indices of the movies in sorted order.
+     */
+    private static int[] sortIndices(Movie[] movies, Comparator<Movie> comparator) {
+        int[] order = new int[movies.length];
+        for (int i = 0; i < movies.length; i++) {
+            order[i] = i;
+        }
+        mergeSortIndices(movies, order, new int[movies.length], 0, movies.length, comparator);
+        return order;
+    }
+
+    /**
+     * Sorts the range [from, to) of an index array with a merge sort, using insertion sort for small ranges.
+     * 
+     * @param movies The movies the indices refer to.
+     * @param order The indices to sort.
+     * @param buffer A buffer with the same length as the indices.
+     * @param from The first position of the range.
+     * @param to The position after the last position of the range.
+     * @param comparator The comparator to define the sort order.
+     */
+    private static void mergeSortIndices(Movie[] movies, int[] order, int[] buffer, int from, int to, Comparator<Movie> comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int index = order[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(movies[order[j]], movies[index]) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+            return;
+        }
+
+        int mid = from + (to - from) / 2;
+        mergeSortIndices(movies, order, buffer, from, mid, comparator);
+        mergeSortIndices(movies, order, buffer, mid, to, comparator);
+        // The halves are already in order if the last movie of the left half is not after the first of the right half
+        if (comparator.compare(movies[order[mid - 1]], movies[order[mid]]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(order, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            // Take from the left half on ties to keep the sort stable
+            if (j >= to || (i < mid && comparator.compare(movies[buffer[j]], movies[buffer[i]]) >= 0)) {
+                order[k] = buffer[i++];
+            } else {
+                order[k] = buffer[j++];
+            }
+        }
+    }
+
+    /**
+     * Gives the indices of int keys in the order of the keys, with the stable radix sort of sortByLongKey.
+     * Indices with the same key keep their order.
+     * 
+     * @param keys The keys, which are not changed.
+     * @return The indices 0, 1, ..., n - 1, sorted by key.
+     */
+    public static int[] sortIndicesByIntKey(int[] keys) {
+        long[] longKeys = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            longKeys[i] = keys[i];
+        }
+        return sortIndicesByLongKey(longKeys);
+    }
+
+    /**
+     * Sorts the data by an int key if the data is not already sorted by that key. Movies with the same key keep
+     * their order.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param keyExtractor The function that gives the key of a movie, such as Movie::getStartTime.
+     * @param keyTitle A title to display for logging purposes.
+     */
+    public void sortDataByIntKey(List<Movie> data, ToIntFunction<Movie> keyExtractor, String keyTitle) {
+        System.out.println("-----------------");
+        System.out.println("Start sorting data: " + keyTitle);
+
+        // Check if the data is already sorted before sorting to avoid unnecessary sorting.
+        if (!isDataSorted(data, Comparator.comparingInt(keyExtractor))) {
+            System.out.println("-> Data is not sorted. Sorting data...");
+            sortByIntKey(data, keyExtractor);
+        }
+        System.out.println("Data sorted.");
+    }
+
+    /**
+     * Sorts the data by an int key with a stable LSD radix sort, in the same way as sortByLongKey. Keys that lie
+     * within a range of 65536 values (such as the start times of a single festival) are sorted with a single
+     * counting sort, and any int keys with at most two passes.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param keyExtractor The function that gives the key of a movie.
+     */
+    public void sortByIntKey(List<Movie> data, ToIntFunction<Movie> keyExtractor) {
+        sortByLongKey(data, movie -> keyExtractor.applyAsInt(movie));
+    }
+
+    /**
+     * Sorts the data by title and then by rating, in the same order as MovieComparators.byTitleThenRating, but
+     * without comparing movies. Every movie gets a single precomputed long key: the title key (the first character
+     * of the lowercase title) combined with the rank of the rating among the distinct ratings. The keys are sorted
+     * with the stable radix sort of sortByLongKey, so movies with the same title key and rating keep their order.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     */
+    public void sortByTitleThenRating(List<Movie> data, boolean ascending) {
+        sortByLongKey(data, titleThenRatingKey(data, ascending));
+    }
+
+    /**
+     * Gives the key of sortByTitleThenRating: the title key combined with the rank of the rating among the distinct
+     * ratings of the data, reversed when sorting in descending order.
+     * 
+     * @param data The list of Movie objects that will be sorted.
+     * @param ascending If true, gives the key for ascending order; if false, for descending order.
+     * @return The function that gives the key of a movie of the data.
+     */
+    private static ToLongFunction<Movie> titleThenRatingKey(List<Movie> data, boolean ascending) {
+        // Rank the distinct ratings in the order of Double.compare, which is also the order of Arrays.sort
+        double[] ratings = new double[data.size()];
+        int numberOfRatings = 0;
+        for (Movie movie : data) {
+            ratings[numberOfRatings++] = movie.getRating();
+        }
+        Arrays.sort(ratings);
+        int numberOfRanks = 0;
+        for (int i = 0; i < numberOfRatings; i++) {
+            if (numberOfRanks == 0 || Double.compare(ratings[numberOfRanks - 1], ratings[i]) != 0) {
+                ratings[numberOfRanks++] = ratings[i];
+            }
+        }
+        double[] distinctRatings = Arrays.copyOf(ratings, numberOfRanks);
+
+        // The title key lies in [-1, 65535] and the rank in [0, distinctRatings.length)
+        long numberOfKeys = (Character.MAX_VALUE + 2L) * distinctRatings.length;
+        return movie -> {
+            long key = (movie.getTitleKey() + 1L) * distinctRatings.length + Arrays.binarySearch(distinctRatings, movie.getRating());
+            return ascending ? key : numberOfKeys - 1 - key;
+        };
+    }
+
+    /**
+     * Sorts the data by title and then by rating with sortByTitleThenRating if the data is not already sorted.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param ascending If true, sorts in ascending order; if false, sorts in descending order.
+     * @param keyTitle A title to display for logging purposes.
+     */
+    public void sortDataByTitleThenRating(List<Movie> data, boolean ascending, String keyTitle) {
+        System.out.println("-----------------");
+        System.out.println("Start sorting data: " + keyTitle);
+
+        // Check if the data is already sorted before sorting to avoid unnecessary sorting.
+        if (!isDataSorted(data, MovieComparators.byTitleThenRating(ascending))) {
+            System.out.println("-> Data is not sorted. Sorting data...");
+            sortByTitleThenRating(data, ascending);
+        }
+        System.out.println("Data sorted.");
+    }
+
+    /**
+     * Sorts the data by a long key with a stable LSD radix sort. The keys are computed once per movie and shifted by
+     * the smallest key, and the shifted keys are sorted 16 bits per pass with a counting sort, starting with the
+     * least significant bits. Only as many passes are made as the range of the keys needs, and no movies are compared,
+     * so a sort takes O(p * (n + k)) time for p passes with k buckets. The sorted movies are written back to the list once.
+     * 
+     * @param data The list of Movie objects to sort.
+     * @param keyExtractor The function that gives the key of a movie.
+     */
+    public void sortByLongKey(List<Movie> data, ToLongFunction<Movie> keyExtractor) {
+        int n = data.size();
+        if (n < 2) {
+            return;
+        }
+
+        Movie[] movies = data.toArray(new Movie[0]);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsLong(movies[i]);
+        }
+        int[] order = sortIndicesByLongKey(keys);
+
+        ListIterator<Movie> iterator = data.listIterator();
+        for (int index : order) {
+            iterator.next();
+            iterator.set(movies[index]);
+        }
+    }
+
+    /**
+     * Gives the indices of long keys in the order of the keys, with the LSD radix sort described in sortByLongKey.
+     * Indices with the same key keep their order.
+     * 
+     * @param keys The keys, which are overwritten.
+     * @return The indices 0, 1, ..., n - 1, sorted by key.
+     */
+    private static int[] sortIndicesByLongKey(long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n < 2) {
+            return order;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        // The shifted keys lie in [0, range] when read as unsigned longs
+        long range = max - min;
+        for (int i = 0; i < n; i++) {
+            keys[i] -= min;
+        }
+
+        int[] sortedOrder = new int[n];
+        long[] sortedKeys = new long[n];
+        for (int shift = 0; shift == 0 || (shift < Long.SIZE && (range >>> shift) != 0); shift += RADIX_BITS) {
+            long remainingRange = range >>> shift;
+            int buckets = remainingRange >= 0 && remainingRange < RADIX_MASK ? (int) remainingRange + 1 : RADIX_MASK + 1;
+            int[] starts = new int[buckets + 1];
+            for (int i = 0; i < n; i++) {
+                starts[((int) (keys[i] >>> shift) & RADIX_MASK) + 1]++;
+            }
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                starts[bucket + 1] += starts[bucket];
+            }
+            for (int i = 0; i < n; i++) {
+                int position = starts[(int) (keys[i] >>> shift) & RADIX_MASK]++;
+                sortedOrder[position] = order[i];
+                sortedKeys[position] = keys[i];
+            }
+
+            int[] tempOrder = order;
+            order = sortedOrder;
+            sortedOrder = tempOrder;
+            long[] tempKeys = keys;
+            keys = sortedKeys;
+            sortedKeys = tempKeys;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts the rows of a table using the provided row comparator if the rows are not already sorted.
+     * 
+     * @param table The table to sort.
+     * @param comparator The row comparator to define the sort order.
+     * @param keyTitle A title to display for logging purposes.
+     */
+    public void sortData(MovieTable table, MovieTable.RowComparator comparator, String keyTitle) {
+        System.out.println("-----------------");
+        System.out.println("Start sorting data: " + keyTitle);
+
+        // Check if the data is already sorted before sorting to avoid unnecessary sorting.
+        if (!isDataSorted(table, comparator)) {
+            System.out.println("-> Data is not sorted. Sorting data...");
+            introSort(table, 0, table.size() - 1, comparator);
+        }
+        System.out.println("Data sorted.");
+    }
+
+    /**
+     * Checks if the rows of a table are sorted according to the provided row comparator.
+     * 
+     * @param table The table to check.
+     * @param comparator The row comparator to compare the order of rows.
+     * @return true if the rows are sorted, false otherwise.
+     */
+    public boolean isDataSorted(MovieTable table, MovieTable.RowComparator comparator) {
+        System.out.println("-> Check if data is sorted.");
+
+        // Loop through the rows to verify if they are sorted
+        for (int i = 0; i < table.size() - 1; i++) {
+            if (comparator.compare(i, i + 1) > 0) {
+                System.out.println("--> Data is not sorted: -- Value1: " + table.getMovie(i) + " -- Value2: " + table.getMovie(i + 1));
+                return false;
+            }
+        }
+        System.out.println("--> Data is sorted.");
+        return true;
+    }
+
+    /**
+     * Implements the QuickSort algorithm to sort the rows of a table using the provided row comparator.
+     * 
+     * @param table The table to sort.
+     * @param from The index of the first row.
+     * @param to The index of the last row.
+     * @param comparator The row comparator to define the sort order.
+     */
+    public void quickSort(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        if (from < to) {
+            int pivotIndex = partition(table, from, to, comparator);
+
+            // Recursively sort the left and right partitions
+            quickSort(table, from, pivotIndex - 1, comparator);
+            quickSort(table, pivotIndex + 1, to, comparator);
+        }
+    }
+
+    /**
+     * Partition method for the QuickSort algorithm over the rows of a table. The last row is the pivot; since rows
+     * are swapped in place, the pivot stays at the last position until the end of the partition.
+     * 
+     * @param table The table to partition.
+     * @param from The index of the first row of the partition.
+     * @param to The index of the last row of the partition.
+     * @param comparator The row comparator to define the order of rows.
+     * @return The index of the pivot row after partitioning.
+     */
+    private int partition(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        int i = from - 1;  // Index of the smaller row
+
+        for (int j = from; j < to; j++) {
+            // If current row is smaller than the pivot, swap it
+            if (comparator.compare(j, to) < 0) {
+                i++;
+                table.swap(i, j);
+            }
+        }
+        // Swap the pivot row to the correct position
+        table.swap(i + 1, to);
+        return i + 1;  // Return the index of the pivot row
+    }
+
+    /**
+     * Implements the IntroSort algorithm to sort the rows of a table using the provided row comparator. The sort
+     * takes O(n log n) time in the worst case, also for sorted, reverse-sorted and duplicate-heavy data.
+     * 
+     * @param table The table to sort.
+     * @param from The index of the first row.
+     * @param to The index of the last row.
+     * @param comparator The row comparator to define the sort order.
+     */
+    public void introSort(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        if (from < to) {
+            introSort(table, from, to, comparator, 2 * floorLog2(to - from + 1));
+        }
+    }
+
+    /**
+     * Sorts a range of rows like introSort on a list. Since rows are compared by index, the pivot is moved to the
+     * first row of the range; during the partition, the first row of the range equal to the pivot is a copy of it.
+     * 
+     * @param table The table to sort.
+     * @param from The index of the first row of the range.
+     * @param to The index of the last row of the range.
+     * @param comparator The row comparator to define the sort order.
+     * @param depthLimit The number of partitions left before switching to heapsort.
+     */
+    private void introSort(MovieTable table, int from, int to, MovieTable.RowComparator comparator, int depthLimit) {
+        while (to - from >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(table, from, to, comparator);
+                return;
+            }
+
+            // Three-way partition around row lt: [from, lt) < pivot, [lt, i) == pivot, (gt, to] > pivot
+            table.swap(from, choosePivot(table, from, to, comparator));
+            int lt = from;
+            int i = from + 1;
+            int gt = to;
+            while (i <= gt) {
+                int result = comparator.compare(i, lt);
+                if (result < 0) {
+                    table.swap(lt++, i++);
+                } else if (result > 0) {
+                    table.swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // The rows equal to the pivot are in place; sort the smaller of the other parts first
+            if (lt - from < to - gt) {
+                introSort(table, from, lt - 1, comparator, depthLimit);
+                from = gt + 1;
+            } else {
+                introSort(table, gt + 1, to, comparator, depthLimit);
+                to = lt - 1;
+            }
+        }
+        insertionSort(table, from, to, comparator);
+    }
+
+    /**
+     * Chooses the pivot of a range of rows, like choosePivot on a list.
+     * 
+     * @param table The table.
+     * @param from The index of the first row of the range.
+     * @param to The index of the last row of the range.
+     * @param comparator The row comparator to define the order of rows.
+     * @return The index of the pivot row.
+     */
+    private int choosePivot(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        int mid = from + (to - from) / 2;
+        if (to - from < NINTHER_THRESHOLD) {
+            return medianOfThree(from, mid, to, comparator);
+        }
+        int step = (to - from) / 8;
+        int first = medianOfThree(from, from + step, from + 2 * step, comparator);
+        int middle = medianOfThree(mid - step, mid, mid + step, comparator);
+        int last = medianOfThree(to - 2 * step, to - step, to, comparator);
+        return medianOfThree(first, middle, last, comparator);
+    }
+
+    /**
+     * Gives the index of the median of three rows.
+     * 
+     * @param a The index of the first row.
+     * @param b The index of the second row.
+     * @param c The index of the third row.
+     * @param comparator The row comparator to define the order of rows.
+     * @return The index of the median row.
+     */
+    private int medianOfThree(int a, int b, int c, MovieTable.RowComparator comparator) {
+        if (comparator.compare(a, b) < 0) {
+            if (comparator.compare(b, c) < 0) return b;
+            return comparator.compare(a, c) < 0 ? c : a;
+        }
+        if (comparator.compare(a, c) < 0) return a;
+        return comparator.compare(b, c) < 0 ? c : b;
+    }
+
+    /**
+     * Sorts a small range of rows with insertion sort, swapping every row down to its position.
+     * 
+     * @param table The table to sort.
+     * @param from The index of the first row of the range.
+     * @param to The index of the last row of the range.
+     * @param comparator The row comparator to define the sort order.
+     */
+    private void insertionSort(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && comparator.compare(j - 1, j) > 0; j--) {
+                table.swap(j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Sorts a range of rows with heapsort, which takes O(n log n) time for any input.
+     * 
+     * @param table The table to sort.
+     * @param from The index of the first row of the range.
+     * @param to The index of the last row of the range.
+     * @param comparator The row comparator to define the sort order.
+     */
+    private void heapSort(MovieTable table, int from, int to, MovieTable.RowComparator comparator) {
+        int size = to - from + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(table, from, i, size, comparator);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            table.swap(from, from + end);
+            siftDown(table, from, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Moves a row of a max-heap down until both its children are smaller, like siftDown on a list.
+     * 
+     * @param table The table.
+     * @param from The index of the root of the heap.
+     * @param i The heap position of the row.
+     * @param size The number of rows in the heap.
+     * @param comparator The row comparator to define the order of rows.
+     */
+    private void siftDown(MovieTable table, int from, int i, int size, MovieTable.RowComparator comparator) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && comparator.compare(from + child, from + child + 1) < 0) {
+                child++;
+            }
+            if (comparator.compare(from + i, from + child) >= 0) {
+                return;
+            }
+            table.swap(from + i, from + child);
+            i = child;
+        }
+    }
+
     /**
      * Swaps two elements in the list.
      * 
@@ -114,4 +1078,253 @@ public class Sorter {
         data.set(i, data.get(j));
         data.set(j, temp);
     }
+
+    /**
+     * Gives the base-2 logarithm of a positive number, rounded down.
+     * 
+     * @param n The number.
+     * @return The largest k such that 2^k <= n.
+     */
+    private static int floorLog2(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * The order of a list according to a comparator, together with a snapshot of the list in its original order.
+     */
+    private static class SortedOrder {
+        private final Movie[] movies;
+        private final int[] order;
+
+        private SortedOrder(Movie[] movies, int[] order) {
+            this.movies = movies;
+            this.order = order;
+        }
+
+        /**
+         * Checks whether a list still holds the same movies, in the same positions, as the snapshot.
+         * The movies are compared by identity, one by one, so this takes O(n) time.
+         */
+        private boolean matches(List<Movie> data) {
+            if (data.size() != this.movies.length) {
+                return false;
+            }
+            int i = 0;
+            for (Movie movie : data) {
+                if (movie != this.movies[i++]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A weak reference to a list that is equal to another reference to the same list, so the cached orders of a list
+     * can be found by identity without keeping the list alive.
+     */
+    private static class ListKey extends WeakReference<List<Movie>> {
+        private final int hash;
+
+        private ListKey(List<Movie> data, ReferenceQueue<List<Movie>> queue) {
+            super(data, queue);
+            this.hash = System.identityHashCode(data);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ListKey)) return false;
+            List<Movie> data = get();
+            return data != null && data == ((ListKey) obj).get();
+        }
+    }
+
+    /**
+     * An unmodifiable view of a snapshot of a list in the order of an index permutation.
+     */
+    private static class SortedView extends AbstractList<Movie> implements RandomAccess {
+        private final Movie[] movies;
+        private final int[] order;
+
+        private SortedView(Movie[] movies, int[] order) {
+            this.movies = movies;
+            this.order = order;
+        }
+
+        @Override
+        public Movie get(int index) {
+            return this.movies[this.order[index]];
+        }
+
+        @Override
+        public int size() {
+            return this.order.length;
+        }
+    }
+
+    /**
+     * Sorts the range [from, to) of an array with a stable merge sort, sorting both halves in parallel and merging
+     * them through the buffer. The sorted range is left in the array.
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Movie[] movies;
+        private final Movie[] buffer;
+        private final int from;
+        private final int to;
+        private final Comparator<Movie> comparator;
+        private final int threshold;
+
+        private MergeSortTask(Movie[] movies, Movie[] buffer, int from, int to, Comparator<Movie> comparator, int threshold) {
+            this.movies = movies;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.threshold) {
+                Arrays.sort(this.movies, this.from, this.to, this.comparator);
+                return;
+            }
+
+            int mid = this.from + (this.to - this.from) / 2;
+            MergeSortTask left = new MergeSortTask(this.movies, this.buffer, this.from, mid, this.comparator, this.threshold);
+            MergeSortTask right = new MergeSortTask(this.movies, this.buffer, mid, this.to, this.comparator, this.threshold);
+            left.fork();
+            right.compute();
+            left.join();
+
+            // The halves are already in order if the last movie of the left half is not after the first of the right half
+            if (this.comparator.compare(this.movies[mid - 1], this.movies[mid]) <= 0) {
+                return;
+            }
+            new MergeTask(this.movies, this.buffer, this.from, mid, mid, this.to, this.from, this.comparator, this.threshold).compute();
+            System.arraycopy(this.buffer, this.from, this.movies, this.from, this.to - this.from);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [leftFrom, leftTo) and [rightFrom, rightTo) of the source array into the target array,
+     * starting at position target. Large merges are split in two independent merges: the middle movie of the larger
+     * range is looked up in the other range with a binary search, and the movies before and after it are merged in
+     * parallel. Equal movies of the left range are placed before those of the right range, so the merge is stable.
+     */
+    private static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Movie[] source;
+        private final Movie[] target;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int targetFrom;
+        private final Comparator<Movie> comparator;
+        private final int threshold;
+
+        private MergeTask(Movie[] source, Movie[] target, int leftFrom, int leftTo, int rightFrom, int rightTo, int targetFrom,
+                Comparator<Movie> comparator, int threshold) {
+            this.source = source;
+            this.target = target;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.targetFrom = targetFrom;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int leftSize = this.leftTo - this.leftFrom;
+            int rightSize = this.rightTo - this.rightFrom;
+            // Merges of two movies are not split, since splitting them may not make them smaller
+            if (leftSize + rightSize <= Math.max(this.threshold, 2) || leftSize == 0 || rightSize == 0) {
+                merge();
+                return;
+            }
+
+            int leftMid;
+            int rightMid;
+            if (leftSize >= rightSize) {
+                // The movies of the right range before the middle movie of the left range are strictly smaller
+                leftMid = this.leftFrom + leftSize / 2;
+                rightMid = lowerBound(this.rightFrom, this.rightTo, this.source[leftMid]);
+            } else {
+                // The movies of the left range before the middle movie of the right range are smaller or equal
+                rightMid = this.rightFrom + rightSize / 2;
+                leftMid = upperBound(this.leftFrom, this.leftTo, this.source[rightMid]);
+            }
+            int targetMid = this.targetFrom + (leftMid - this.leftFrom) + (rightMid - this.rightFrom);
+
+            MergeTask first = new MergeTask(this.source, this.target, this.leftFrom, leftMid, this.rightFrom, rightMid,
+                this.targetFrom, this.comparator, this.threshold);
+            MergeTask second = new MergeTask(this.source, this.target, leftMid, this.leftTo, rightMid, this.rightTo,
+                targetMid, this.comparator, this.threshold);
+            first.fork();
+            second.compute();
+            first.join();
+        }
+
+        /**
+         * Merges both ranges sequentially.
+         */
+        private void merge() {
+            int i = this.leftFrom;
+            int j = this.rightFrom;
+            int k = this.targetFrom;
+            while (i < this.leftTo && j < this.rightTo) {
+                // Take from the left range on ties to keep the sort stable
+                if (this.comparator.compare(this.source[j], this.source[i]) < 0) {
+                    this.target[k++] = this.source[j++];
+                } else {
+                    this.target[k++] = this.source[i++];
+                }
+            }
+            System.arraycopy(this.source, i, this.target, k, this.leftTo - i);
+            System.arraycopy(this.source, j, this.target, k + this.leftTo - i, this.rightTo - j);
+        }
+
+        /**
+         * Gives the position of the first movie in [from, to) of the source that is not smaller than the key.
+         */
+        private int lowerBound(int from, int to, Movie key) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (this.comparator.compare(this.source[mid], key) < 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        /**
+         * Gives the position of the first movie in [from, to) of the source that is larger than the key.
+         */
+        private int upperBound(int from, int to, Movie key) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (this.comparator.compare(this.source[mid], key) <= 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+    }
 }
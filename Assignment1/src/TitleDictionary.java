@@ -0,0 +1,168 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TitleDictionary class stores every distinct movie title once and gives it an int id. Together with the title,
+ * the dictionary stores the lowercase title and the title key (the first character of the lowercase title) that the
+ * comparators and the Searcher use, so these are computed once per title instead of on every comparison.
+ *
+ * Movies created from the same dictionary share a single entry per title, so repeated titles take no extra memory.
+ * Titles can be interned from multiple threads at the same time, as the parallel CSV loader does.
+ *
+ * @author 611968bq - Berend Quist
+ */
+public class TitleDictionary {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Entry> entries;
+    private volatile Entry[] entriesById;  // Replaced, never shrunk, when the dictionary grows
+    private int size = 0;
+
+    /**
+     * A distinct title in a dictionary, with its id and its cached lowercase title and title key.
+     */
+    public static final class Entry {
+        private final int id;
+        private final String title;
+        private final String lowercaseTitle;
+        private final int key;
+
+        private Entry(int id, String title) {
+            this.id = id;
+            this.title = title;
+            this.lowercaseTitle = title == null ? null : title.toLowerCase();
+            this.key = this.lowercaseTitle == null || this.lowercaseTitle.isEmpty() ? -1 : this.lowercaseTitle.charAt(0);
+        }
+
+        /**
+         * Creates an entry for a title that is not in a dictionary, with id -1.
+         *
+         * @param title The title.
+         * @return The entry of the title.
+         */
+        public static Entry of(String title) {
+            return new Entry(-1, title);
+        }
+
+        /**
+         * Gives the id of the title in its dictionary.
+         *
+         * @return The id, or -1 if the title is not in a dictionary.
+         */
+        public int getId() {
+            return this.id;
+        }
+
+        /**
+         * Gives the title.
+         *
+         * @return The title.
+         */
+        public String getTitle() {
+            return this.title;
+        }
+
+        /**
+         * Gives the title in lowercase.
+         *
+         * @return The lowercase title.
+         */
+        public String getLowercaseTitle() {
+            return this.lowercaseTitle;
+        }
+
+        /**
+         * Gives the key by which titles are compared: the first character of the lowercase title.
+         *
+         * @return The first character of the lowercase title, or -1 if the title is empty.
+         */
+        public int getKey() {
+            return this.key;
+        }
+    }
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    public TitleDictionary() {
+        this.entries = new ConcurrentHashMap<>();
+        this.entriesById = new Entry[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gives the entry of a title, adding the title to the dictionary if it is not in it yet.
+     *
+     * @param title The title.
+     * @return The entry of the title, which is the same for every call with an equal title.
+     * @throws IllegalArgumentException if the title is null.
+     */
+    public Entry intern(String title) {
+        if (title == null) {
+            throw new IllegalArgumentException("Unable to add a missing title to the dictionary.");
+        }
+        Entry entry = this.entries.get(title);
+        return entry != null ? entry : add(title);
+    }
+
+    /**
+     * Adds a title to the dictionary, unless another thread added it first.
+     *
+     * @param title The title.
+     * @return The entry of the title.
+     */
+    private synchronized Entry add(String title) {
+        Entry entry = this.entries.get(title);
+        if (entry == null) {
+            Entry[] byId = this.entriesById;
+            if (this.size == byId.length) {
+                byId = Arrays.copyOf(byId, 2 * byId.length);
+            }
+            entry = new Entry(this.size, title);
+            byId[this.size++] = entry;
+            this.entriesById = byId;  // Publish the entry by id before it can be found by title
+            this.entries.put(title, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gives the entry with the given id.
+     *
+     * @param id The id of the title.
+     * @return The entry of the title.
+     * @throws IllegalArgumentException if there is no title with the id.
+     */
+    public Entry getEntry(int id) {
+        Entry[] byId = this.entriesById;
+        if (id < 0 || id >= byId.length || byId[id] == null) {
+            throw new IllegalArgumentException("No title with id " + id + " in the dictionary.");
+        }
+        return byId[id];
+    }
+
+    /**
+     * Checks whether an entry belongs to this dictionary.
+     *
+     * @param entry The entry.
+     * @return True if the entry was handed out by this dictionary, false otherwise.
+     */
+    public boolean contains(Entry entry) {
+        Entry[] byId = this.entriesById;
+        return entry.id >= 0 && entry.id < byId.length && byId[entry.id] == entry;
+    }
+
+    /**
+     * Gives the number of distinct titles in the dictionary.
+     *
+     * @return The number of titles.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+        return "TitleDictionary [titles=" + size() + "]";
+    }
+}